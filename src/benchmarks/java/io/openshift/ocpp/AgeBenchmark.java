@@ -0,0 +1,70 @@
+package io.openshift.ocpp;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Formatting AGE column of a whole table: parsing the timestamp on each refresh
+ * (the original <code>Util.getAge</code>) versus {@link Age} parsed once per object.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgeBenchmark {
+   @Param({ "1000", "10000" })
+   int rows;
+
+   String[] timestamps;
+   Age[] ages;
+
+   @Setup
+   public void setup() {
+      long now = System.currentTimeMillis() / 1000;
+      timestamps = new String[rows];
+      ages = new Age[rows];
+      for (int i = 0; i < rows; ++i) {
+         // spread over a month so that all formats are used
+         timestamps[i] = Instant.ofEpochSecond(now - (i * 2617L) % (30 * 86400)).toString();
+         ages[i] = Age.of(timestamps[i]);
+      }
+   }
+
+   @Benchmark
+   public void parseEachRefresh(Blackhole blackhole) {
+      for (String timestamp : timestamps) {
+         blackhole.consume(Util.formatSeconds(Instant.from(DateTimeFormatter.ISO_INSTANT.parse(timestamp)).until(Instant.now(), ChronoUnit.SECONDS)));
+      }
+   }
+
+   @Benchmark
+   public void parsedOnce(Blackhole blackhole) {
+      for (Age age : ages) {
+         blackhole.consume(age.text());
+      }
+   }
+
+   @Benchmark
+   public void parseOnly(Blackhole blackhole) {
+      for (String timestamp : timestamps) {
+         blackhole.consume(Age.of(timestamp));
+      }
+   }
+}
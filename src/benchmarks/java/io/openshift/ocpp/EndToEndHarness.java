@@ -0,0 +1,258 @@
+package io.openshift.ocpp;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.screen.TerminalScreen;
+import com.googlecode.lanterna.terminal.Terminal;
+import com.googlecode.lanterna.terminal.virtual.DefaultVirtualTerminal;
+import com.googlecode.lanterna.terminal.virtual.VirtualTerminalListener;
+
+import io.fabric8.kubernetes.client.server.mock.KubernetesMockServer;
+import io.fabric8.mockwebserver.Context;
+import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftConfigBuilder;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Runs the whole application against {@link MockApiServer} on a virtual terminal. For each view it
+ * seeds the objects, creates objects at given rate, deletes them after few seconds and measures the time until
+ * the change is visible on the terminal, along with bytes sent by the server and allocations per screen refresh.
+ * <p>
+ * Configured by system properties <code>e2e.objects</code>, <code>e2e.churn</code> (changes per second)
+ * and <code>e2e.duration</code> (seconds per view).
+ */
+public class EndToEndHarness {
+   private static final String NAMESPACE = "e2e";
+   private static final int OBJECTS = Integer.getInteger("e2e.objects", 1000);
+   private static final int CHURN = Integer.getInteger("e2e.churn", 5);
+   private static final int DURATION = Integer.getInteger("e2e.duration", 15);
+   // seconds each created object lives before it is deleted
+   private static final int LIFETIME = 3;
+   private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(30);
+
+   private final MockApiServer api = new MockApiServer();
+   private final Fixtures fixtures = new Fixtures(42);
+   private final DefaultVirtualTerminal terminal = new DefaultVirtualTerminal(new TerminalSize(200, 60));
+   // name -> nanoTime when we expect it to appear or disappear
+   private final Map<String, Long> pendingAdd = new ConcurrentHashMap<>();
+   private final Map<String, Long> pendingDelete = new ConcurrentHashMap<>();
+   private final List<Long> appearLatencies = Collections.synchronizedList(new ArrayList<>());
+   private final List<Long> disappearLatencies = Collections.synchronizedList(new ArrayList<>());
+   private final AtomicLong flushes = new AtomicLong();
+   // objects deleted before they were displayed
+   private final AtomicLong missed = new AtomicLong();
+   private volatile String lastScreen = "";
+
+   public static void main(String[] args) throws Exception {
+      if (System.getProperty("ocpp.cache") == null) {
+         // measure loading from the server, not from snapshots of previous runs
+         System.setProperty("ocpp.cache", "");
+      }
+      new EndToEndHarness().run();
+      System.exit(0);
+   }
+
+   private void run() throws Exception {
+      KubernetesMockServer server = new KubernetesMockServer(new Context(), new MockWebServer(), new HashMap<>(), api, false);
+      server.init();
+      seed();
+
+      terminal.addVirtualTerminalListener(new VirtualTerminalListener() {
+         @Override
+         public void onFlush() {
+            flushes.incrementAndGet();
+            checkScreen();
+         }
+
+         @Override
+         public void onBell() {
+         }
+
+         @Override
+         public void onClose() {
+         }
+
+         @Override
+         public void onResized(Terminal terminal, TerminalSize newSize) {
+         }
+      });
+      DefaultOpenShiftClient oc = new DefaultOpenShiftClient(new OpenShiftConfigBuilder()
+            .withMasterUrl(server.url("/")).withNamespace(NAMESPACE).build());
+      // the GUI thread is the one that creates the GUI
+      CompletableFuture<Main> started = new CompletableFuture<>();
+      Thread guiThread = new Thread(() -> {
+         try {
+            Main main = new Main(new TerminalScreen(terminal), oc);
+            main.start();
+            started.complete(main);
+            main.ocpp.gui.waitForWindowToClose(main.mainWindow);
+         } catch (IOException | RuntimeException e) {
+            started.completeExceptionally(e);
+         }
+      }, "gui");
+      guiThread.start();
+      Main main = started.get();
+
+      System.out.printf("%d objects per view, %d changes/s, %d s per view%n%n", OBJECTS, CHURN, DURATION);
+      System.out.printf("%-12s %10s %10s %10s %10s %10s %7s %12s %8s %14s %10s%n",
+            "VIEW", "INITIAL", "ADD-P50", "ADD-P99", "DEL-P50", "DEL-P99", "MISSED", "KB-SENT/S", "REFRESH", "ALLOC/REFRESH", "GC-MS");
+      measure(main, Pods.INSTANCE, "pod-0", name -> api.create("/api/v1", "pods", fixtures.pod(NAMESPACE, name, "node-0")),
+            name -> api.delete("/api/v1", "pods", NAMESPACE, name));
+      measure(main, Services.INSTANCE, "service-0", name -> api.create("/api/v1", "services", fixtures.service(NAMESPACE, name)),
+            name -> api.delete("/api/v1", "services", NAMESPACE, name));
+      measure(main, Deployments.INSTANCE, "deployment-0", name -> api.create("/apis/apps/v1", "deployments", fixtures.deployment(NAMESPACE, name)),
+            name -> api.delete("/apis/apps/v1", "deployments", NAMESPACE, name));
+      measure(main, ConfigMaps.INSTANCE, "config-0", name -> api.create("/api/v1", "configmaps", fixtures.configMap(NAMESPACE, name, 20, 1000)),
+            name -> api.delete("/api/v1", "configmaps", NAMESPACE, name));
+      measure(main, Nodes.INSTANCE, "node-0", name -> api.create("/api/v1", "nodes", fixtures.node(name, "worker")),
+            name -> api.delete("/api/v1", "nodes", null, name));
+
+      main.ocpp.gui.getGUIThread().invokeLater(main.mainWindow::close);
+      guiThread.join();
+      main.stop();
+      server.destroy();
+   }
+
+   private void seed() {
+      fixtures.pods(NAMESPACE, OBJECTS, Math.max(1, OBJECTS / 20)).forEach(pod -> api.create("/api/v1", "pods", pod));
+      fixtures.services(NAMESPACE, OBJECTS).forEach(svc -> api.create("/api/v1", "services", svc));
+      fixtures.deployments(NAMESPACE, OBJECTS).forEach(d -> api.create("/apis/apps/v1", "deployments", d));
+      fixtures.configMaps(NAMESPACE, OBJECTS, 20, 1000).forEach(cm -> api.create("/api/v1", "configmaps", cm));
+      fixtures.nodes(Math.max(1, OBJECTS / 20)).forEach(node -> api.create("/api/v1", "nodes", node));
+   }
+
+   private void measure(Main main, Resources resources, String firstRow, Consumer<String> create, Consumer<String> delete) throws InterruptedException {
+      appearLatencies.clear();
+      disappearLatencies.clear();
+      long start = System.nanoTime();
+      pendingAdd.put(firstRow, start);
+      main.ocpp.gui.getGUIThread().invokeLater(() -> main.ocpp.switchResources(resources));
+      awaitPending(start);
+      long initial = appearLatencies.isEmpty() ? -1 : appearLatencies.remove(0);
+
+      long bytesBefore = api.bytesSent();
+      long flushesBefore = flushes.get();
+      long allocatedBefore = allocatedBytes();
+      long gcBefore = gcMillis();
+      start = System.nanoTime();
+      long end = start + TimeUnit.SECONDS.toNanos(DURATION);
+      Deque<String> live = new ArrayDeque<>();
+      for (int i = 0; System.nanoTime() < end; ++i) {
+         // sorted right after the selected first row so that they are on the first screen
+         String name = String.format("%s-churn-%06d", firstRow, i);
+         pendingAdd.put(name, System.nanoTime());
+         create.accept(name);
+         live.add(name);
+         if (live.size() > CHURN * LIFETIME) {
+            delete(live.poll(), delete);
+         }
+         Thread.sleep(1000 / CHURN);
+      }
+      awaitPending(System.nanoTime());
+      while (!live.isEmpty()) {
+         delete(live.poll(), delete);
+      }
+      awaitPending(System.nanoTime());
+      long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+      long refreshes = Math.max(1, flushes.get() - flushesBefore);
+      System.out.printf("%-12s %10s %10s %10s %10s %10s %7d %12d %8d %14s %10d%n",
+            resources.getResourceType(null), millis(initial),
+            millis(percentile(appearLatencies, 50)), millis(percentile(appearLatencies, 99)),
+            millis(percentile(disappearLatencies, 50)), millis(percentile(disappearLatencies, 99)), missed.getAndSet(0),
+            (api.bytesSent() - bytesBefore) / 1024 / seconds, refreshes,
+            Util.formatBytes((allocatedBytes() - allocatedBefore) / refreshes), gcMillis() - gcBefore);
+   }
+
+   private void delete(String name, Consumer<String> delete) {
+      // we measure the removal only when it has been displayed
+      if (pendingAdd.remove(name) == null) {
+         pendingDelete.put(name, System.nanoTime());
+      } else {
+         missed.incrementAndGet();
+      }
+      delete.accept(name);
+   }
+
+   private void awaitPending(long since) throws InterruptedException {
+      while ((!pendingAdd.isEmpty() || !pendingDelete.isEmpty()) && System.nanoTime() - since < TIMEOUT) {
+         Thread.sleep(10);
+      }
+      if (!pendingAdd.isEmpty() || !pendingDelete.isEmpty()) {
+         System.out.println("Timed out waiting for " + pendingAdd.keySet() + " to show up and " + pendingDelete.keySet() + " to disappear, screen is:");
+         System.out.println(lastScreen);
+         pendingAdd.clear();
+         pendingDelete.clear();
+      }
+   }
+
+   private void checkScreen() {
+      long now = System.nanoTime();
+      StringBuilder sb = new StringBuilder();
+      TerminalSize size = terminal.getTerminalSize();
+      for (int row = 0; row < size.getRows(); ++row) {
+         for (int column = 0; column < size.getColumns(); ++column) {
+            sb.append(terminal.getCharacter(column, row).getCharacter());
+         }
+         sb.append('\n');
+      }
+      String screenText = sb.toString();
+      lastScreen = screenText;
+      for (Map.Entry<String, Long> entry : pendingAdd.entrySet()) {
+         if (screenText.contains(entry.getKey() + " ") && pendingAdd.remove(entry.getKey(), entry.getValue())) {
+            appearLatencies.add(now - entry.getValue());
+         }
+      }
+      for (Map.Entry<String, Long> entry : pendingDelete.entrySet()) {
+         if (!screenText.contains(entry.getKey() + " ") && pendingDelete.remove(entry.getKey(), entry.getValue())) {
+            disappearLatencies.add(now - entry.getValue());
+         }
+      }
+   }
+
+   private static long percentile(List<Long> values, int percentile) {
+      synchronized (values) {
+         if (values.isEmpty()) {
+            return -1;
+         }
+         List<Long> sorted = new ArrayList<>(values);
+         Collections.sort(sorted);
+         return sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+      }
+   }
+
+   private static String millis(long nanos) {
+      return nanos < 0 ? "-" : TimeUnit.NANOSECONDS.toMillis(nanos) + " ms";
+   }
+
+   private static long allocatedBytes() {
+      com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+      long sum = 0;
+      for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+         sum += Math.max(0, allocated);
+      }
+      return sum;
+   }
+
+   private static long gcMillis() {
+      long sum = 0;
+      for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+         sum += Math.max(0, gc.getCollectionTime());
+      }
+      return sum;
+   }
+}
@@ -0,0 +1,202 @@
+package io.openshift.ocpp;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.ConfigMapBuilder;
+import io.fabric8.kubernetes.api.model.IntOrString;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.NodeBuilder;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodBuilder;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServiceBuilder;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentBuilder;
+
+/**
+ * Synthetic resources resembling what we get from a real cluster.
+ */
+public class Fixtures {
+   private static final String[] WAITING_REASONS = { "ContainerCreating", "CrashLoopBackOff", "ImagePullBackOff" };
+
+   private final Random random;
+   private final long now = System.currentTimeMillis() / 1000;
+
+   public Fixtures(long seed) {
+      this.random = new Random(seed);
+   }
+
+   public List<Pod> pods(String namespace, int count, int nodes) {
+      List<Pod> pods = new ArrayList<>(count);
+      for (int i = 0; i < count; ++i) {
+         pods.add(pod(namespace, "pod-" + i, "node-" + random.nextInt(nodes)));
+      }
+      return pods;
+   }
+
+   public Pod pod(String namespace, String name, String node) {
+      // most pods are running, some are stuck
+      boolean ready = random.nextInt(10) != 0;
+      int containers = 1 + random.nextInt(3);
+      PodBuilder builder = new PodBuilder()
+            .withNewMetadata()
+               .withNamespace(namespace).withName(name).withUid(uid()).withResourceVersion(String.valueOf(random.nextInt(1_000_000)))
+               .withCreationTimestamp(timestamp()).addToLabels("app", name.substring(0, Math.min(name.length(), 8)))
+            .endMetadata()
+            .withNewSpec().withNodeName(node).endSpec()
+            .withNewStatus()
+               .withPhase(ready ? "Running" : "Pending").withStartTime(timestamp()).withPodIP(ip())
+               .addNewCondition().withType("PodScheduled").withStatus("True").endCondition()
+               .addNewCondition().withType("Initialized").withStatus("True").endCondition()
+               .addNewCondition().withType("Ready").withStatus(ready ? "True" : "False").endCondition()
+            .endStatus();
+      for (int c = 0; c < containers; ++c) {
+         builder.editSpec().addNewContainer()
+               .withName("container-" + c).withImage("quay.io/example/image:" + c)
+               .withNewResources()
+                  .addToRequests("cpu", new Quantity((50 + random.nextInt(10) * 50) + "m"))
+                  .addToRequests("memory", new Quantity((64 << random.nextInt(5)) + "Mi"))
+               .endResources()
+               .endContainer().endSpec();
+         if (ready) {
+            builder.editStatus().addNewContainerStatus()
+                  .withName("container-" + c).withReady(true).withRestartCount(random.nextInt(3))
+                  .withNewState().withNewRunning().withStartedAt(timestamp()).endRunning().endState()
+                  .endContainerStatus().endStatus();
+         } else {
+            builder.editStatus().addNewContainerStatus()
+                  .withName("container-" + c).withReady(false).withRestartCount(random.nextInt(30))
+                  .withNewState().withNewWaiting().withReason(WAITING_REASONS[random.nextInt(WAITING_REASONS.length)]).endWaiting().endState()
+                  .endContainerStatus().endStatus();
+         }
+      }
+      return builder.build();
+   }
+
+   public List<Node> nodes(int count) {
+      List<Node> nodes = new ArrayList<>(count);
+      for (int i = 0; i < count; ++i) {
+         nodes.add(node("node-" + i, i < 3 ? "master" : "worker"));
+      }
+      return nodes;
+   }
+
+   public Node node(String name, String role) {
+      return new NodeBuilder()
+            .withNewMetadata()
+               .withName(name).withUid(uid()).withResourceVersion(String.valueOf(random.nextInt(1_000_000)))
+               .withCreationTimestamp(timestamp())
+               .addToLabels("kubernetes.io/hostname", name)
+               .addToLabels("kubernetes.io/os", "linux")
+               .addToLabels("node-role.kubernetes.io/" + role, "")
+            .endMetadata()
+            .withNewStatus()
+               .addNewCondition().withType("MemoryPressure").withStatus("False").endCondition()
+               .addNewCondition().withType("Ready").withStatus("True").endCondition()
+               .addNewAddress().withType("InternalIP").withAddress(ip()).endAddress()
+               .addNewAddress().withType("Hostname").withAddress(name).endAddress()
+               .addToCapacity("pods", new Quantity("250"))
+               .addToCapacity("cpu", new Quantity("16"))
+               .addToCapacity("memory", new Quantity("64Gi"))
+            .endStatus()
+            .build();
+   }
+
+   public List<Service> services(String namespace, int count) {
+      List<Service> services = new ArrayList<>(count);
+      for (int i = 0; i < count; ++i) {
+         services.add(service(namespace, "service-" + i));
+      }
+      return services;
+   }
+
+   public Service service(String namespace, String name) {
+      return new ServiceBuilder()
+            .withNewMetadata()
+               .withNamespace(namespace).withName(name).withUid(uid()).withResourceVersion(String.valueOf(random.nextInt(1_000_000)))
+               .withCreationTimestamp(timestamp())
+            .endMetadata()
+            .withNewSpec()
+               .withType(random.nextInt(10) == 0 ? "NodePort" : "ClusterIP").withClusterIP(ip())
+               .addNewPort().withName("http").withPort(80).withTargetPort(new IntOrString(8080)).withProtocol("TCP").endPort()
+               .addNewPort().withName("https").withPort(443).withTargetPort(new IntOrString("https")).withProtocol("TCP").endPort()
+               .addToSelector("app", name)
+            .endSpec()
+            .build();
+   }
+
+   public List<ConfigMap> configMaps(String namespace, int count, int keys, int valueSize) {
+      List<ConfigMap> configMaps = new ArrayList<>(count);
+      for (int i = 0; i < count; ++i) {
+         configMaps.add(configMap(namespace, "config-" + i, keys, valueSize));
+      }
+      return configMaps;
+   }
+
+   public ConfigMap configMap(String namespace, String name, int keys, int valueSize) {
+      char[] value = new char[valueSize];
+      Arrays.fill(value, 'x');
+      Map<String, String> data = new HashMap<>();
+      for (int k = 0; k < keys; ++k) {
+         data.put("key-" + k + ".yaml", new String(value));
+      }
+      return new ConfigMapBuilder()
+            .withNewMetadata()
+               .withNamespace(namespace).withName(name).withUid(uid()).withResourceVersion(String.valueOf(random.nextInt(1_000_000)))
+               .withCreationTimestamp(timestamp())
+            .endMetadata()
+            .withData(data)
+            .build();
+   }
+
+   public List<Deployment> deployments(String namespace, int count) {
+      List<Deployment> deployments = new ArrayList<>(count);
+      for (int i = 0; i < count; ++i) {
+         deployments.add(deployment(namespace, "deployment-" + i));
+      }
+      return deployments;
+   }
+
+   public Deployment deployment(String namespace, String name) {
+      int replicas = 1 + random.nextInt(3);
+      return new DeploymentBuilder()
+            .withNewMetadata()
+               .withNamespace(namespace).withName(name).withUid(uid()).withResourceVersion(String.valueOf(random.nextInt(1_000_000)))
+               .withCreationTimestamp(timestamp())
+            .endMetadata()
+            .withNewSpec()
+               .withReplicas(replicas)
+               .withNewSelector().addToMatchLabels("app", name).endSelector()
+               .withNewTemplate()
+                  .withNewMetadata().addToLabels("app", name).endMetadata()
+                  .withNewSpec().addNewContainer().withName("main").withImage("quay.io/example/image:latest").endContainer().endSpec()
+               .endTemplate()
+            .endSpec()
+            .withNewStatus()
+               .withReplicas(replicas).withReadyReplicas(replicas).withUpdatedReplicas(replicas).withAvailableReplicas(replicas)
+            .endStatus()
+            .build();
+   }
+
+   private String uid() {
+      return new UUID(random.nextLong(), random.nextLong()).toString();
+   }
+
+   private String timestamp() {
+      // anything from seconds to months ago
+      return Instant.ofEpochSecond(now - (long) Math.pow(10, random.nextDouble() * 7)).toString();
+   }
+
+   private String ip() {
+      return "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+   }
+}
@@ -0,0 +1,119 @@
+package io.openshift.ocpp;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Indexing a downloaded log (without the network) and searching it without the cached results.
+ * Compare with <code>time grep -ic timeout</code> on the same file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = { "-Xmx1g" })
+public class LogFileBenchmark {
+   private static final String[] MESSAGES = {
+         "GET /api/v1/namespaces/default/pods 200 12ms",
+         "Connection to db-0.db.svc:5432 timed out, retrying",
+         "Reconciling deployment frontend, 3 replicas ready",
+         "ERROR Failed to process request id=%d: java.lang.IllegalStateException",
+         "Cache hit ratio 0.93, 18234 entries",
+   };
+
+   @State(Scope.Benchmark)
+   public static class LogState {
+      @Param({ "256" })
+      int sizeMb;
+
+      File raw;
+      File indexed;
+      LogFile file;
+
+      @Setup
+      public void setup() throws IOException {
+         raw = File.createTempFile("ocpp-benchmark-", ".log");
+         Random random = new Random(42);
+         long time = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+         long bytes = 0;
+         try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(raw), StandardCharsets.UTF_8))) {
+            while (bytes < ((long) sizeMb << 20)) {
+               time += random.nextInt(20);
+               String line = Instant.ofEpochMilli(time) + " " + String.format(MESSAGES[random.nextInt(MESSAGES.length)], random.nextInt(1_000_000)) + "\n";
+               writer.write(line);
+               bytes += line.length();
+            }
+         }
+         indexed = File.createTempFile("ocpp-benchmark-", ".log");
+         file = index(indexed);
+      }
+
+      LogFile index(File target) throws IOException {
+         try (InputStream input = new BufferedInputStream(new FileInputStream(raw))) {
+            return LogFile.read(input, target);
+         }
+      }
+
+      @TearDown
+      public void tearDown() {
+         file.close();
+         raw.delete();
+      }
+   }
+
+   @Benchmark
+   public LogFile index(LogState state) throws IOException {
+      File target = File.createTempFile("ocpp-benchmark-", ".log");
+      try {
+         return state.index(target);
+      } finally {
+         target.delete();
+      }
+   }
+
+   @Benchmark
+   public long[] searchText(LogState state) throws ExecutionException, InterruptedException {
+      state.file.forgetSearches();
+      return state.file.search("timed out", false).get();
+   }
+
+   @Benchmark
+   public long[] searchRegex(LogState state) throws ExecutionException, InterruptedException {
+      state.file.forgetSearches();
+      return state.file.search("error.*id=42\\d{3}:", true).get();
+   }
+
+   public static void main(String[] args) throws RunnerException {
+      new Runner(new OptionsBuilder()
+            .include(LogFileBenchmark.class.getSimpleName())
+            .build()).run();
+   }
+}
@@ -0,0 +1,350 @@
+package io.openshift.ocpp;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.internal.SerializationUtils;
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * In-memory API server for fabric8 mock web server. Unlike the CRUD dispatcher shipped with
+ * fabric8 4.8 this supports pagination, label selectors, metadata-only responses, watches over websocket
+ * (as fabric8 client does them) and over plain HTTP (as {@link MetadataSource} does them). Plain HTTP watches are
+ * answered once there are some events so the client has to watch again.
+ */
+public class MockApiServer extends Dispatcher {
+   private static final long LONG_POLL_TIMEOUT = 5000;
+
+   private final ObjectMapper mapper = SerializationUtils.getMapper();
+   // api prefix and plural -> namespace/name -> object
+   private final Map<String, TreeMap<String, ObjectNode>> store = new HashMap<>();
+   private final List<Watch> watches = new CopyOnWriteArrayList<>();
+   private final AtomicLong resourceVersion = new AtomicLong(1000);
+   private final AtomicLong bytesSent = new AtomicLong();
+   private final AtomicLong requests = new AtomicLong();
+
+   public long bytesSent() {
+      return bytesSent.get();
+   }
+
+   public long requests() {
+      return requests.get();
+   }
+
+   /**
+    * @param apiPrefix E.g. <code>/api/v1</code> or <code>/apis/apps/v1</code>
+    * @param plural E.g. <code>pods</code>
+    */
+   public void create(String apiPrefix, String plural, HasMetadata resource) {
+      ObjectNode object = mapper.valueToTree(resource);
+      synchronized (this) {
+         ObjectNode metadata = object.with("metadata");
+         metadata.put("uid", UUID.randomUUID().toString());
+         if (!metadata.hasNonNull("creationTimestamp")) {
+            metadata.put("creationTimestamp", Instant.now().toString());
+         }
+         put(apiPrefix + "/" + plural, object, "ADDED");
+      }
+   }
+
+   public void delete(String apiPrefix, String plural, String namespace, String name) {
+      synchronized (this) {
+         ObjectNode object = store.getOrDefault(apiPrefix + "/" + plural, new TreeMap<>()).remove(key(namespace, name));
+         if (object != null) {
+            object.with("metadata").put("resourceVersion", String.valueOf(resourceVersion.incrementAndGet()));
+            notify(apiPrefix + "/" + plural, namespace, "DELETED", object);
+         }
+      }
+   }
+
+   private void put(String collection, ObjectNode object, String event) {
+      ObjectNode metadata = object.with("metadata");
+      metadata.put("resourceVersion", String.valueOf(resourceVersion.incrementAndGet()));
+      String namespace = metadata.path("namespace").asText("");
+      store.computeIfAbsent(collection, c -> new TreeMap<>()).put(key(namespace, metadata.path("name").asText()), object);
+      notify(collection, namespace, event, object);
+   }
+
+   private void notify(String collection, String namespace, String type, ObjectNode object) {
+      String json = null;
+      String metadataJson = null;
+      for (Watch watch : watches) {
+         if (watch.collection.equals(collection) && (watch.namespace == null || watch.namespace.equals(namespace))
+               && matches(object, watch.selector)) {
+            String event;
+            if (watch.metadataOnly) {
+               event = metadataJson = metadataJson != null ? metadataJson : event(type, partialObjectMetadata(object));
+            } else {
+               event = json = json != null ? json : event(type, object);
+            }
+            bytesSent.addAndGet(event.length());
+            watch.sink.accept(event);
+         }
+      }
+   }
+
+   private String event(String type, ObjectNode object) {
+      ObjectNode event = mapper.createObjectNode();
+      event.put("type", type);
+      event.set("object", object);
+      return event.toString();
+   }
+
+   private static String key(String namespace, String name) {
+      return (namespace == null ? "" : namespace) + "/" + name;
+   }
+
+   @Override
+   public MockResponse dispatch(RecordedRequest request) {
+      requests.incrementAndGet();
+      HttpUrl url = request.getRequestUrl();
+      List<String> segments = url.pathSegments();
+      int restStart;
+      if (segments.size() > 1 && "api".equals(segments.get(0))) {
+         restStart = 2;
+      } else if (segments.size() > 2 && "apis".equals(segments.get(0))) {
+         restStart = 3;
+      } else {
+         return status(404, "Not found");
+      }
+      String apiPrefix = "/" + String.join("/", segments.subList(0, restStart));
+      List<String> rest = segments.subList(restStart, segments.size());
+      String namespace = null;
+      String plural;
+      String name = null;
+      if (rest.size() >= 3 && "namespaces".equals(rest.get(0))) {
+         namespace = rest.get(1);
+         plural = rest.get(2);
+         if (rest.size() == 4) {
+            name = rest.get(3);
+         } else if (rest.size() > 4) {
+            return status(404, "Subresources are not supported");
+         }
+      } else if (rest.size() == 1 || rest.size() == 2) {
+         plural = rest.get(0);
+         name = rest.size() == 2 ? rest.get(1) : null;
+      } else {
+         return status(404, "Not found");
+      }
+      String collection = apiPrefix + "/" + plural;
+      try {
+         switch (request.getMethod()) {
+            case "GET":
+               if (name != null) {
+                  return get(collection, namespace, name);
+               } else if ("true".equals(url.queryParameter("watch"))) {
+                  return watch(request, collection, namespace, selector(url.queryParameter("labelSelector")), metadataOnly(request));
+               } else {
+                  return list(collection, namespace, selector(url.queryParameter("labelSelector")),
+                        url.queryParameter("limit"), url.queryParameter("continue"), metadataOnly(request));
+               }
+            case "POST":
+               return create(collection, namespace, (ObjectNode) mapper.readTree(request.getBody().readUtf8()));
+            case "PUT":
+               return replace(collection, namespace, name, (ObjectNode) mapper.readTree(request.getBody().readUtf8()));
+            case "DELETE":
+               if (name == null) {
+                  return status(405, "Deleting collections is not supported");
+               }
+               delete(apiPrefix, plural, namespace, name);
+               return status(200, "Deleted");
+            default:
+               return status(405, "Method not allowed");
+         }
+      } catch (IOException e) {
+         return status(400, e.getMessage());
+      }
+   }
+
+   private synchronized MockResponse get(String collection, String namespace, String name) {
+      ObjectNode object = store.getOrDefault(collection, new TreeMap<>()).get(key(namespace, name));
+      return object == null ? status(404, name + " not found") : json(200, object);
+   }
+
+   private static boolean metadataOnly(RecordedRequest request) {
+      String accept = request.getHeader("Accept");
+      return accept != null && accept.startsWith("application/json;as=PartialObjectMetadata");
+   }
+
+   private ObjectNode partialObjectMetadata(ObjectNode object) {
+      ObjectNode partial = mapper.createObjectNode();
+      partial.put("apiVersion", "meta.k8s.io/v1");
+      partial.put("kind", "PartialObjectMetadata");
+      partial.set("metadata", object.path("metadata"));
+      return partial;
+   }
+
+   private synchronized MockResponse list(String collection, String namespace, Map<String, String> selector, String limit, String continueToken, boolean metadataOnly) {
+      List<ObjectNode> items = new ArrayList<>();
+      for (ObjectNode object : store.getOrDefault(collection, new TreeMap<>()).values()) {
+         if ((namespace == null || namespace.equals(object.path("metadata").path("namespace").asText())) && matches(object, selector)) {
+            items.add(metadataOnly ? partialObjectMetadata(object) : object);
+         }
+      }
+      int from = continueToken == null || continueToken.isEmpty() ? 0 : Integer.parseInt(continueToken);
+      int to = limit == null ? items.size() : Math.min(items.size(), from + Integer.parseInt(limit));
+      ObjectNode list = mapper.createObjectNode();
+      list.put("apiVersion", "v1");
+      list.put("kind", "List");
+      ObjectNode metadata = list.putObject("metadata");
+      metadata.put("resourceVersion", String.valueOf(resourceVersion.get()));
+      if (to < items.size()) {
+         metadata.put("continue", String.valueOf(to));
+      }
+      list.putArray("items").addAll(items.subList(Math.min(from, items.size()), to));
+      return json(200, list);
+   }
+
+   private MockResponse create(String collection, String namespace, ObjectNode object) {
+      synchronized (this) {
+         ObjectNode metadata = object.with("metadata");
+         if (namespace != null) {
+            metadata.put("namespace", namespace);
+         }
+         if (store.getOrDefault(collection, new TreeMap<>()).containsKey(key(namespace, metadata.path("name").asText()))) {
+            return status(409, "Already exists");
+         }
+         metadata.put("uid", UUID.randomUUID().toString());
+         metadata.put("creationTimestamp", Instant.now().toString());
+         put(collection, object, "ADDED");
+      }
+      return json(201, object);
+   }
+
+   private MockResponse replace(String collection, String namespace, String name, ObjectNode object) {
+      synchronized (this) {
+         ObjectNode previous = store.getOrDefault(collection, new TreeMap<>()).get(key(namespace, name));
+         if (previous == null) {
+            return status(404, name + " not found");
+         }
+         ObjectNode metadata = object.with("metadata");
+         metadata.set("uid", previous.path("metadata").path("uid"));
+         metadata.set("creationTimestamp", previous.path("metadata").path("creationTimestamp"));
+         put(collection, object, "MODIFIED");
+      }
+      return json(200, object);
+   }
+
+   private MockResponse watch(RecordedRequest request, String collection, String namespace, Map<String, String> selector, boolean metadataOnly) {
+      if ("websocket".equalsIgnoreCase(request.getHeader("Upgrade"))) {
+         return new MockResponse().withWebSocketUpgrade(new WebSocketListener() {
+            private Watch watch;
+
+            @Override
+            public void onOpen(WebSocket webSocket, Response response) {
+               watch = new Watch(collection, namespace, selector, metadataOnly, webSocket::send);
+               watches.add(watch);
+            }
+
+            @Override
+            public void onClosing(WebSocket webSocket, int code, String reason) {
+               watches.remove(watch);
+               webSocket.close(code, reason);
+            }
+
+            @Override
+            public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+               watches.remove(watch);
+            }
+         });
+      }
+      BlockingQueue<String> events = new LinkedBlockingQueue<>();
+      Watch watch = new Watch(collection, namespace, selector, metadataOnly, events::add);
+      watches.add(watch);
+      StringBuilder body = new StringBuilder();
+      try {
+         String event = events.poll(LONG_POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+         if (event != null) {
+            // give other events in the same batch a chance
+            Thread.sleep(10);
+            body.append(event).append('\n');
+         }
+      } catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+      } finally {
+         watches.remove(watch);
+      }
+      List<String> rest = new ArrayList<>();
+      events.drainTo(rest);
+      rest.forEach(e -> body.append(e).append('\n'));
+      return new MockResponse().setResponseCode(200).setHeader("Content-Type", "application/json").setBody(body.toString());
+   }
+
+   private static Map<String, String> selector(String labelSelector) {
+      if (labelSelector == null || labelSelector.isEmpty()) {
+         return Collections.emptyMap();
+      }
+      Map<String, String> selector = new HashMap<>();
+      for (String requirement : labelSelector.split(",")) {
+         String[] parts = requirement.split("==?", 2);
+         selector.put(parts[0], parts.length > 1 ? parts[1] : "");
+      }
+      return selector;
+   }
+
+   private static boolean matches(JsonNode object, Map<String, String> selector) {
+      JsonNode labels = object.path("metadata").path("labels");
+      for (Map.Entry<String, String> entry : selector.entrySet()) {
+         if (!entry.getValue().equals(labels.path(entry.getKey()).asText(null))) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private MockResponse json(int code, JsonNode node) {
+      String body = node.toString();
+      bytesSent.addAndGet(body.length());
+      return new MockResponse().setResponseCode(code).setHeader("Content-Type", "application/json").setBody(body);
+   }
+
+   private MockResponse status(int code, String message) {
+      ObjectNode status = mapper.createObjectNode();
+      status.put("apiVersion", "v1");
+      status.put("kind", "Status");
+      status.put("status", code < 300 ? "Success" : "Failure");
+      status.put("message", message);
+      status.put("code", code);
+      return json(code, status);
+   }
+
+   private static class Watch {
+      final String collection;
+      final String namespace;
+      final Map<String, String> selector;
+      final boolean metadataOnly;
+      final Consumer<String> sink;
+
+      Watch(String collection, String namespace, Map<String, String> selector, boolean metadataOnly, Consumer<String> sink) {
+         this.collection = collection;
+         this.namespace = namespace;
+         this.selector = selector;
+         this.metadataOnly = metadataOnly;
+         this.sink = sink;
+      }
+   }
+}
@@ -0,0 +1,87 @@
+package io.openshift.ocpp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.fabric8.kubernetes.api.model.Pod;
+
+/**
+ * Cost of the table filter per keystroke (typing a query from scratch) and of keeping the index
+ * up-to-date on refresh. A keystroke should fit in a frame (<code>1 / ocpp.maxFps</code>).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class RowFilterBenchmark {
+   @State(Scope.Benchmark)
+   public static class FilterState {
+      @Param({ "10000", "50000" })
+      int pods;
+
+      @Param({ "SUBSTRING", "FUZZY", "REGEX" })
+      RowFilter.Mode mode;
+
+      List<Pod> podList;
+      RowCache<Pod> rowCache;
+      List<Row> rows;
+      RowFilter filter;
+
+      @Setup
+      public void setup() {
+         podList = new Fixtures(42).pods("bench", pods, 500);
+         rowCache = new RowCache<>(Pods.INSTANCE.getColumns(), pod -> pod.getStatus().getStartTime());
+         rows = refresh();
+         filter = new RowFilter();
+         while (filter.mode() != mode) {
+            filter.nextMode();
+         }
+         filter.index(rows, true);
+      }
+
+      List<Row> refresh() {
+         return rowCache.rows(null, podList, Pods.INSTANCE::toRow).sorted(Row.BY_NAME).collect(Collectors.toList());
+      }
+   }
+
+   @Benchmark
+   public void typeQuery(FilterState state, Blackhole blackhole) {
+      for (char c : "pod-4242".toCharArray()) {
+         state.filter.type(c);
+         blackhole.consume(state.filter.filter(state.rows, true));
+      }
+      for (int i = 0; i < 8; ++i) {
+         state.filter.backspace();
+      }
+   }
+
+   @Benchmark
+   public void indexRefresh(FilterState state) {
+      // unchanged resources, new rows; includes creating the rows
+      state.filter.index(state.refresh(), true);
+   }
+
+   public static void main(String[] args) throws RunnerException {
+      new Runner(new OptionsBuilder()
+            .include(RowFilterBenchmark.class.getSimpleName())
+            .build()).run();
+   }
+}
@@ -0,0 +1,151 @@
+package io.openshift.ocpp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.Service;
+
+/**
+ * Per-refresh transforms from fabric8 model to table rows. Run {@link #main(String[])}
+ * (or add <code>-prof gc</code>) to see allocation rate along with the throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx2g" })
+public class RowTransformBenchmark {
+   // rows that fit on a terminal
+   private static final int VISIBLE = 50;
+
+   @State(Scope.Benchmark)
+   public static class PodState {
+      @Param({ "1000", "10000", "50000" })
+      int pods;
+
+      List<Pod> podList;
+      List<Quantity> quantities;
+      RowCache<Pod> rowCache;
+
+      @Setup
+      public void setup() {
+         podList = new Fixtures(42).pods("bench", pods, ClusterState.NODES);
+         quantities = new ArrayList<>();
+         for (Pod pod : podList) {
+            for (Container container : pod.getSpec().getContainers()) {
+               quantities.add(container.getResources().getRequests().get("cpu"));
+            }
+         }
+         rowCache = new RowCache<>(Pods.INSTANCE.getColumns(), pod -> pod.getStatus().getStartTime());
+         rowCache.rows(null, podList, Pods.INSTANCE::toRow).forEach(Row::cells);
+      }
+   }
+
+   @State(Scope.Benchmark)
+   public static class ClusterState {
+      static final int NODES = 500;
+
+      List<Node> nodes;
+      NodePodIndex podIndex;
+      List<Service> services;
+      List<ConfigMap> configMaps;
+
+      @Setup
+      public void setup() {
+         Fixtures fixtures = new Fixtures(43);
+         nodes = fixtures.nodes(NODES);
+         podIndex = new NodePodIndex();
+         fixtures.pods("bench", 10_000, NODES).forEach(podIndex::onAdd);
+         services = fixtures.services("bench", 1000);
+         configMaps = fixtures.configMaps("bench", 1000, 20, 100);
+      }
+   }
+
+   @Benchmark
+   public void podsToRow(PodState state, Blackhole blackhole) {
+      for (Pod pod : state.podList) {
+         blackhole.consume(Pods.INSTANCE.toRow(pod));
+      }
+   }
+
+   @Benchmark
+   public List<Row> podsCachedRows(PodState state, Blackhole blackhole) {
+      List<Row> rows = state.rowCache.rows(null, state.podList, Pods.INSTANCE::toRow).sorted(Row.BY_NAME).collect(Collectors.toList());
+      for (int i = 0; i < VISIBLE && i < rows.size(); ++i) {
+         Row row = rows.get(i);
+         for (int column = 0; column < Pods.INSTANCE.getColumns().length; ++column) {
+            blackhole.consume(row.cell(column));
+         }
+      }
+      return rows;
+   }
+
+   @Benchmark
+   public NodePodIndex nodePodIndex(PodState state) {
+      NodePodIndex index = new NodePodIndex();
+      state.podList.forEach(index::onAdd);
+      return index;
+   }
+
+   @Benchmark
+   public void nodesToRow(ClusterState state, Blackhole blackhole) {
+      for (Node node : state.nodes) {
+         blackhole.consume(Nodes.INSTANCE.toRow(node, state.podIndex.get(node.getMetadata().getName())));
+      }
+   }
+
+   @Benchmark
+   public void servicesToRow(ClusterState state, Blackhole blackhole) {
+      for (Service service : state.services) {
+         blackhole.consume(Services.INSTANCE.toRow(service));
+      }
+   }
+
+   @Benchmark
+   public void configMapsToRow(ClusterState state, Blackhole blackhole) {
+      for (ConfigMap configMap : state.configMaps) {
+         // full objects have data so the summary is computed right away
+         blackhole.consume(ConfigMaps.INSTANCE.toRow(null, null, configMap));
+      }
+   }
+
+   @Benchmark
+   public long millicores(PodState state) {
+      long sum = 0;
+      for (Quantity quantity : state.quantities) {
+         sum += Util.millicores(quantity);
+      }
+      return sum;
+   }
+
+   public static void main(String[] args) throws RunnerException {
+      new Runner(new OptionsBuilder()
+            .include(RowTransformBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+   }
+}
@@ -4,16 +4,34 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 
 import com.googlecode.lanterna.gui2.dialogs.MessageDialog;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialogButton;
 import com.googlecode.lanterna.gui2.dialogs.WaitingDialog;
 
+import io.fabric8.kubernetes.api.model.HasMetadata;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 import io.fabric8.kubernetes.client.internal.SerializationUtils;
 
 public abstract class AbstractResources implements Resources {
+   // describe and yaml are rendered from the cached objects, not by oc
+   private static final boolean IN_PROCESS_VIEWS = !"false".equals(System.getProperty("ocpp.inProcessViews"));
+   private static final boolean MANAGED_FIELDS = Boolean.getBoolean("ocpp.yaml.managedFields");
+   private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory()
+         .disable(YAMLGenerator.Feature.WRITE_DOC_START_MARKER).enable(YAMLGenerator.Feature.MINIMIZE_QUOTES).enable(YAMLGenerator.Feature.ALWAYS_QUOTE_NUMBERS_AS_STRINGS));
+
    final Operation DESCRIBE = this::describe;
    final Operation EDIT = this::edit;
    final Operation DELETE = this::delete;
@@ -21,29 +39,125 @@ public abstract class AbstractResources implements Resources {
 
    @Override
    public void describe(Ocpp ocpp, List<String> row) {
+      if (IN_PROCESS_VIEWS && getResources(ocpp, row) != null) {
+         view(ocpp, row, resource -> Describer.describe(ocpp.oc, resource));
+         return;
+      }
       String resourceName = row.get(0);
-      String[] command = { Ocpp.OC_BINARY, "describe", "-n", ocpp.ns(), getResourceType(row), resourceName };
+      String[] command = ocpp.cluster().ocCommand("describe", "-n", ocpp.ns(row), getResourceType(row), resourceName);
       GuiUtil.runAndView(ocpp, command, getResourceType(row) + "-" + resourceName, ".txt");
    }
 
    @Override
    public void showYaml(Ocpp ocpp, List<String> row) {
+      if (IN_PROCESS_VIEWS && getResources(ocpp, row) != null) {
+         view(ocpp, row, AbstractResources::toYaml);
+         return;
+      }
       String resourceName = row.get(0);
-      String[] command = { Ocpp.OC_BINARY, "get", "-o", "yaml", "-n", ocpp.ns(), getResourceType(row), resourceName };
+      String[] command = ocpp.cluster().ocCommand("get", "-o", "yaml", "-n", ocpp.ns(row), getResourceType(row), resourceName);
       GuiUtil.runAndView(ocpp, command, getResourceType(row) + "-" + resourceName, ".yaml");
    }
 
+   /**
+    * Renders the resource in background and shows the text in a {@link LogPane}.
+    */
+   private void view(Ocpp ocpp, List<String> row, Function<HasMetadata, String> renderer) {
+      String title = getResourceType(row) + "/" + row.get(0);
+      withResource(ocpp, row, HasMetadata.class, resource -> {
+         WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Loading " + title + "...");
+         ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> {
+            try {
+               LogFile text = LogFile.of(renderer.apply(resource), getResourceType(row) + "-" + row.get(0) + "-");
+               ocpp.gui.getGUIThread().invokeLater(() -> new LogPane(ocpp, title, text).showFromTop());
+            } catch (Exception e) {
+               GuiUtil.showException(ocpp, e);
+            } finally {
+               waitingDialog.close();
+            }
+         });
+      });
+   }
+
+   /**
+    * @return Resource held by an up-to-date informer, or fetched from the server if there's none;
+    *         concurrent fetches of the same resource share one request.
+    */
+   CompletableFuture<HasMetadata> lookup(Ocpp ocpp, List<String> row) {
+      String name = row.get(0);
+      String ns = namespaced() ? ocpp.ns(row) : null;
+      String kind = informerKind(row);
+      HasMetadata cached = kind == null ? null : ocpp.informers.find(kind, ns, name);
+      if (cached != null) {
+         return CompletableFuture.completedFuture(cached);
+      }
+      return ocpp.informers.fetch(getResourceType(row) + "/" + ns + "/" + name,
+            () -> (HasMetadata) getResources(ocpp, row).withName(name).get(), ocpp.scheduler.executor(Scheduler.Lane.INTERACTIVE));
+   }
+
+   /**
+    * Runs the action in GUI thread with the resource of the row; shows a waiting dialog only if the resource
+    * has to be fetched. Called in GUI thread.
+    */
+   <T extends HasMetadata> void withResource(Ocpp ocpp, List<String> row, Class<T> type, Consumer<T> action) {
+      String title = getResourceType(row) + "/" + row.get(0);
+      CompletableFuture<HasMetadata> lookup = lookup(ocpp, row);
+      if (lookup.isDone()) {
+         accept(ocpp, title, lookup, type, action);
+         return;
+      }
+      WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Loading " + title + "...");
+      lookup.whenComplete((resource, throwable) -> ocpp.gui.getGUIThread().invokeLater(() -> {
+         waitingDialog.close();
+         accept(ocpp, title, lookup, type, action);
+      }));
+   }
+
+   private static <T extends HasMetadata> void accept(Ocpp ocpp, String title, CompletableFuture<HasMetadata> lookup, Class<T> type, Consumer<T> action) {
+      HasMetadata resource;
+      try {
+         resource = lookup.join();
+      } catch (CompletionException e) {
+         GuiUtil.showException(ocpp, e.getCause());
+         return;
+      }
+      if (resource == null) {
+         MessageDialog.showMessageDialog(ocpp.gui, "Not found", title + " does not exist anymore", MessageDialogButton.OK);
+         return;
+      }
+      action.accept(type.cast(resource));
+   }
+
+   /**
+    * @return Key of the informer holding full resources of the row, or <code>null</code> if the view does not keep one.
+    */
+   String informerKind(List<String> row) {
+      return null;
+   }
+
+   static String toYaml(HasMetadata resource) {
+      JsonNode tree = SerializationUtils.getMapper().valueToTree(resource);
+      if (!MANAGED_FIELDS && tree.get("metadata") instanceof ObjectNode) {
+         ((ObjectNode) tree.get("metadata")).remove("managedFields");
+      }
+      try {
+         return YAML.writeValueAsString(tree);
+      } catch (JsonProcessingException e) {
+         throw new IllegalStateException(e);
+      }
+   }
+
    @Override
    public void edit(Ocpp ocpp, List<String> row) {
       try {
-         runOc(ocpp, "edit", getResourceType(row), row.get(0));
+         runOc(ocpp, "edit", ocpp.ns(row), getResourceType(row), row.get(0));
       } catch (IOException e) {
          GuiUtil.showException(ocpp, e);
       }
    }
 
-   private void runOc(Ocpp ocpp, String command, String resourceType, String name) throws IOException {
-      Process process = new ProcessBuilder(Ocpp.OC_BINARY, command, "-n", ocpp.ns(), resourceType, name)
+   private void runOc(Ocpp ocpp, String command, String ns, String resourceType, String name) throws IOException {
+      Process process = new ProcessBuilder(ocpp.cluster().ocCommand(command, "-n", ns, resourceType, name))
             .inheritIO().start();
       try {
          process.waitFor();
@@ -61,19 +175,21 @@ public abstract class AbstractResources implements Resources {
             "Confirm delete", "Do you really want to delete " + resource,
             MessageDialogButton.Yes, MessageDialogButton.No);
       if (result == MessageDialogButton.Yes) {
-         WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Deleting " + resource + "...");
-         ocpp.executor.submit(() -> {
-            try {
-               Resource<?, ?> r = getResources(ocpp, row).withName(resourceName);
-               String prefix = getResourceType(row) + "-" + resourceName + "-";
-               Path deletedBackup = Files.createTempFile(ocpp.deletions, prefix, ".yaml");
-               Files.write(deletedBackup, SerializationUtils.getMapper().writeValueAsBytes(r.get()));
-               r.delete();
-            } catch (Exception e) {
-               GuiUtil.showException(ocpp, e);
-            } finally {
-               waitingDialog.close();
-            }
+         // the backup is the cached object when there's one
+         withResource(ocpp, row, HasMetadata.class, backup -> {
+            WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Deleting " + resource + "...");
+            ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> {
+               try {
+                  String prefix = getResourceType(row) + "-" + resourceName + "-";
+                  Path deletedBackup = Files.createTempFile(ocpp.deletions, prefix, ".yaml");
+                  Files.write(deletedBackup, SerializationUtils.getMapper().writeValueAsBytes(backup));
+                  getResources(ocpp, row).withName(resourceName).delete();
+               } catch (Exception e) {
+                  GuiUtil.showException(ocpp, e);
+               } finally {
+                  waitingDialog.close();
+               }
+            });
          });
       }
    }
@@ -84,7 +200,7 @@ public abstract class AbstractResources implements Resources {
          return;
       }
       WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Deleting...");
-      ocpp.executor.submit(() -> {
+      ocpp.scheduler.submit(Scheduler.Lane.BULK, () -> {
          try {
             getResources(ocpp, null).delete();
          } finally {
@@ -94,6 +210,11 @@ public abstract class AbstractResources implements Resources {
    }
 
    protected boolean confirmDeleteAll(Ocpp ocpp) {
+      if (ocpp.scope() != null) {
+         MessageDialog.showMessageDialog(ocpp.gui, "Delete all", "Switch to a single namespace to delete all " + getResourceType(null) + ".",
+               MessageDialogButton.OK);
+         return false;
+      }
       return MessageDialog.showMessageDialog(ocpp.gui, "Delete all?", "Really delete all " + getResourceType(null) + "?",
             MessageDialogButton.Yes, MessageDialogButton.No) == MessageDialogButton.Yes;
    }
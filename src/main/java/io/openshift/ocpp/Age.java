@@ -0,0 +1,55 @@
+package io.openshift.ocpp;
+
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Time since a timestamp that is parsed only once. The text is reused until the displayed value
+ * changes: every second during the first hour, then every minute or hour.
+ */
+public class Age {
+   public static final Age NONE = new Age(Long.MIN_VALUE);
+
+   private final long since;
+   private String text;
+   private long validUntil = Long.MIN_VALUE;
+
+   /**
+    * @param since Epoch seconds, or {@link Long#MIN_VALUE} if not known.
+    */
+   public Age(long since) {
+      this.since = since;
+   }
+
+   public static Age of(String timestamp) {
+      if (timestamp == null || timestamp.isEmpty()) {
+         return NONE;
+      }
+      try {
+         return new Age(Instant.parse(timestamp).getEpochSecond());
+      } catch (DateTimeParseException e) {
+         return NONE;
+      }
+   }
+
+   long since() {
+      return since;
+   }
+
+   public String text() {
+      return text(System.currentTimeMillis() / 1000);
+   }
+
+   synchronized String text(long now) {
+      if (since == Long.MIN_VALUE) {
+         return "";
+      }
+      if (now >= validUntil || text == null) {
+         long seconds = now - since;
+         text = Util.formatSeconds(seconds);
+         long granularity = seconds < 3600 ? 1 : seconds < 86400 ? 60 : 3600;
+         validUntil = now + granularity - Math.floorMod(seconds, granularity);
+      }
+      return text;
+   }
+}
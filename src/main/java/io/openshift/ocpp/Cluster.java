@@ -0,0 +1,38 @@
+package io.openshift.ocpp;
+
+import java.util.stream.Stream;
+
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Kubeconfig context attached to this process. Each cluster has its own client and informers;
+ * the informers of clusters that are not displayed keep watching until they become idle, so that
+ * switching back shortly is instant.
+ */
+public class Cluster {
+   final String context;
+   final Informers informers;
+   // RBAC differs between clusters
+   final Namespaces namespaces = new Namespaces();
+   // replaced after login
+   volatile OpenShiftClient oc;
+
+   Cluster(String context, OpenShiftClient oc, Runnable onProgress) {
+      this.context = context;
+      this.oc = oc;
+      this.informers = new Informers(() -> this.oc, onProgress);
+   }
+
+   /**
+    * @return Command line running <code>oc</code> against this cluster, which need not be the current kubeconfig context.
+    */
+   String[] ocCommand(String... args) {
+      Stream<String> context = Clusters.DEFAULT_CONTEXT.equals(this.context) ? Stream.empty() : Stream.of("--context", this.context);
+      return Stream.concat(Stream.concat(Stream.of(Ocpp.OC_BINARY), context), Stream.of(args)).toArray(String[]::new);
+   }
+
+   @Override
+   public String toString() {
+      return context;
+   }
+}
@@ -0,0 +1,115 @@
+package io.openshift.ocpp;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.NamedContext;
+import io.fabric8.kubernetes.client.Config;
+import io.fabric8.kubernetes.client.internal.KubeConfigUtils;
+import io.fabric8.kubernetes.client.utils.HttpClientUtils;
+import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftConfig;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+/**
+ * Clusters attached from kubeconfig contexts. Their clients share one OkHttp dispatcher and connection pool,
+ * so the number of threads and idle connections does not grow with each attached cluster.
+ */
+public class Clusters {
+   // used when kubeconfig does not set the current context
+   static final String DEFAULT_CONTEXT = "(default)";
+   // each open websocket watch holds a dispatcher slot, and prefetch and multi-namespace views watch a lot
+   static final int MAX_REQUESTS_PER_HOST = Integer.getInteger("ocpp.http.maxRequestsPerHost", 256);
+   static final int MAX_REQUESTS = Integer.getInteger("ocpp.http.maxRequests", 1024);
+
+   private final Dispatcher dispatcher = new Dispatcher();
+   private final ConnectionPool connectionPool = new ConnectionPool();
+   // in the order of attaching
+   private final Map<String, Cluster> attached = new LinkedHashMap<>();
+   private final Runnable onProgress;
+
+   public Clusters(Runnable onProgress) {
+      this.onProgress = onProgress;
+      dispatcher.setMaxRequests(MAX_REQUESTS);
+      dispatcher.setMaxRequestsPerHost(MAX_REQUESTS_PER_HOST);
+   }
+
+   static Path kubeconfig() {
+      String KUBECONFIG = System.getenv("KUBECONFIG");
+      return KUBECONFIG != null ? Paths.get(KUBECONFIG) : Paths.get(System.getenv("HOME"), ".kube", "config");
+   }
+
+   /**
+    * @return Names of the contexts in kubeconfig.
+    */
+   static List<String> contexts() throws IOException {
+      Path kubeconfig = kubeconfig();
+      if (!kubeconfig.toFile().exists()) {
+         return Collections.emptyList();
+      }
+      return KubeConfigUtils.parseConfig(kubeconfig.toFile()).getContexts().stream().map(NamedContext::getName).collect(Collectors.toList());
+   }
+
+   static String currentContext() {
+      Path kubeconfig = kubeconfig();
+      try {
+         if (kubeconfig.toFile().exists()) {
+            String context = KubeConfigUtils.parseConfig(kubeconfig.toFile()).getCurrentContext();
+            if (context != null && !context.isEmpty()) {
+               return context;
+            }
+         }
+      } catch (IOException e) {
+         // the client will report invalid kubeconfig
+      }
+      return DEFAULT_CONTEXT;
+   }
+
+   /**
+    * @return Client for the configuration that shares connections with the other clusters.
+    */
+   public DefaultOpenShiftClient createClient(Config config) {
+      synchronized (dispatcher) {
+         dispatcher.setMaxRequests(Math.max(dispatcher.getMaxRequests(), config.getMaxConcurrentRequests()));
+         dispatcher.setMaxRequestsPerHost(Math.max(dispatcher.getMaxRequestsPerHost(), config.getMaxConcurrentRequestsPerHost()));
+      }
+      OkHttpClient httpClient = HttpClientUtils.createHttpClient(config).newBuilder()
+            .dispatcher(dispatcher).connectionPool(connectionPool).build();
+      return new DefaultOpenShiftClient(httpClient, OpenShiftConfig.wrap(config));
+   }
+
+   /**
+    * Registers the cluster of a client created elsewhere, e.g. the one we started with.
+    */
+   public synchronized Cluster add(String context, OpenShiftClient oc) {
+      return attached.computeIfAbsent(context, c -> new Cluster(c, oc, onProgress));
+   }
+
+   /**
+    * @return Cluster for the kubeconfig context, creating its client on the first call.
+    */
+   public synchronized Cluster attach(String context) {
+      return attached.computeIfAbsent(context, c -> {
+         Config config = Config.autoConfigure(DEFAULT_CONTEXT.equals(c) ? null : c);
+         if (config.getNamespace() == null) {
+            config.setNamespace("default");
+         }
+         return new Cluster(c, createClient(config), onProgress);
+      });
+   }
+
+   public synchronized Collection<Cluster> attached() {
+      return new ArrayList<>(attached.values());
+   }
+}
@@ -0,0 +1,193 @@
+package io.openshift.ocpp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.googlecode.lanterna.gui2.dialogs.WaitingDialog;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.MixedOperation;
+import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
+import io.fabric8.kubernetes.client.dsl.Resource;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * View made of several kinds of resources, told apart by the TYPE column (second one). The kinds are listed
+ * concurrently, each by its own informer, so the latency of the view is that of the slowest kind
+ * and rows of each kind show up as soon as they arrive.
+ * <p>
+ * With server-side tables the kinds are requested in parallel too; after the first load the view shows
+ * the last rows of each kind while the next requests are in flight.
+ */
+public abstract class CompositeResources extends AbstractResources {
+   private final String name;
+   private final String[] columns;
+   private final List<Part<?>> parts;
+   // cluster/namespace/type -> last rows from server-side table; the view is shared by all clusters
+   private final Map<String, List<Row>> tableRows = new ConcurrentHashMap<>();
+   private final Map<String, CompletableFuture<List<Row>>> tableRequests = new ConcurrentHashMap<>();
+
+   /**
+    * @param name Resource type of the whole view, e.g. <code>deployments</code>.
+    */
+   protected CompositeResources(String name, String[] columns, Part<?>... parts) {
+      this.name = name;
+      this.columns = columns;
+      this.parts = Arrays.asList(parts);
+   }
+
+   @Override
+   public String[] getColumns() {
+      return columns;
+   }
+
+   @Override
+   public List<Row> fetchRows(Ocpp ocpp, String ns) {
+      if (ServerTable.ENABLED) {
+         return fetchTables(ocpp, ns);
+      }
+      List<Row> rows = new ArrayList<>();
+      for (Part<?> part : parts) {
+         rows.addAll(part.rows(ocpp, ns));
+      }
+      rows.sort(Row.BY_NAME);
+      return rows;
+   }
+
+   private List<Row> fetchTables(Ocpp ocpp, String ns) {
+      Cluster cluster = ocpp.cluster();
+      OpenShiftClient oc = cluster.oc;
+      List<CompletableFuture<List<Row>>> requests = new ArrayList<>();
+      boolean loaded = true;
+      for (Part<?> part : parts) {
+         String key = cluster + "/" + ns + "/" + part.type;
+         loaded &= tableRows.containsKey(key);
+         CompletableFuture<List<Row>> request = tableRequests.get(key);
+         if (request == null) {
+            request = CompletableFuture.supplyAsync(() ->
+                  ServerTable.fetch(oc, part.tablePath(ns), columns, Collections.singletonMap("TYPE", part.type)), cluster.informers.loader)
+                  .thenApply(rows -> {
+                     tableRows.put(key, rows);
+                     return rows;
+                  });
+            tableRequests.put(key, request);
+            CompletableFuture<List<Row>> finalRequest = request;
+            request.whenComplete((rows, throwable) -> {
+               tableRequests.remove(key, finalRequest);
+               if (rows != null) {
+                  cluster.informers.onProgress.run();
+               }
+            });
+         }
+         requests.add(request);
+      }
+      if (!loaded) {
+         // nothing to show yet, wait for all kinds
+         try {
+            CompletableFuture.allOf(requests.toArray(new CompletableFuture<?>[0])).join();
+         } catch (CompletionException e) {
+            if (e.getCause() instanceof KubernetesClientException) {
+               throw (KubernetesClientException) e.getCause();
+            }
+            throw new KubernetesClientException("Failed to fetch " + name, e.getCause());
+         }
+      }
+      List<Row> rows = new ArrayList<>();
+      for (Part<?> part : parts) {
+         rows.addAll(tableRows.getOrDefault(cluster + "/" + ns + "/" + part.type, Collections.emptyList()));
+      }
+      rows.sort(Row.BY_NAME);
+      return rows;
+   }
+
+   @Override
+   public String getResourceType(List<String> row) {
+      return row == null ? name : row.get(1);
+   }
+
+   @Override
+   public NonNamespaceOperation<?, ?, ?, ? extends Resource<?, ?>> getResources(Ocpp ocpp, List<String> row) {
+      for (Part<?> part : parts) {
+         if (part.type.equals(row.get(1))) {
+            return part.operation.apply(ocpp.oc).inNamespace(ocpp.ns(row));
+         }
+      }
+      return null;
+   }
+
+   @Override
+   String informerKind(List<String> row) {
+      for (Part<?> part : parts) {
+         if (part.type.equals(row.get(1))) {
+            return part.plural;
+         }
+      }
+      return null;
+   }
+
+   @Override
+   public void deleteAll(Ocpp ocpp) {
+      if (!confirmDeleteAll(ocpp)) {
+         return;
+      }
+      WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Deleting...");
+      String ns = ocpp.ns();
+      CompletableFuture.allOf(parts.stream()
+            .map(part -> CompletableFuture.runAsync(() -> part.operation.apply(ocpp.oc).inNamespace(ns).delete(), ocpp.scheduler.executor(Scheduler.Lane.BULK)))
+            .toArray(CompletableFuture[]::new))
+            .whenComplete((nil, throwable) -> {
+               waitingDialog.close();
+               if (throwable != null) {
+                  GuiUtil.showException(ocpp, throwable instanceof CompletionException ? throwable.getCause() : throwable);
+               }
+            });
+   }
+
+   /**
+    * One kind of resources in the view.
+    */
+   protected static class Part<T extends HasMetadata> {
+      final String type;
+      private final String apiPath;
+      private final String plural;
+      private final Function<OpenShiftClient, MixedOperation<T, ? extends KubernetesResourceList<T>, ?, ? extends Resource<T, ?>>> operation;
+      private final Function<T, String[]> formatter;
+      private final RowCache<T> rowCache;
+
+      /**
+       * @param type Value of the TYPE column, also used as resource type for <code>oc</code>.
+       * @param apiPath E.g. <code>apis/apps/v1</code>
+       * @param plural E.g. <code>deployments</code>
+       * @param operation Resources of this kind.
+       */
+      public Part(String type, String apiPath, String plural, String[] columns,
+                  Function<OpenShiftClient, MixedOperation<T, ? extends KubernetesResourceList<T>, ?, ? extends Resource<T, ?>>> operation,
+                  Function<T, String[]> formatter) {
+         this.type = type;
+         this.apiPath = apiPath;
+         this.plural = plural;
+         this.operation = operation;
+         this.formatter = formatter;
+         this.rowCache = new RowCache<>(columns, r -> r.getMetadata().getCreationTimestamp());
+      }
+
+      List<Row> rows(Ocpp ocpp, String ns) {
+         return rowCache.rows(ns, ocpp.informers.get(plural, ns, oc -> ns == null ? operation.apply(oc).inAnyNamespace() : operation.apply(oc).inNamespace(ns)).items(),
+               formatter).collect(Collectors.toList());
+      }
+
+      String tablePath(String ns) {
+         return apiPath + "/namespaces/" + ns + "/" + plural;
+      }
+   }
+}
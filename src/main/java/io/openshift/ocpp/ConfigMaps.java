@@ -1,7 +1,11 @@
 package io.openshift.ocpp;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import io.fabric8.kubernetes.api.model.ConfigMap;
@@ -11,9 +15,13 @@ import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 
 public class ConfigMaps extends AbstractResources {
+   private static final String[] COLUMNS = new String[] { "NAME", "DATA", "AGE" };
+   // after COLUMNS, which the instance uses
    public static final ConfigMaps INSTANCE = new ConfigMaps();
 
-   private static final String[] COLUMNS = new String[] { "NAME", "DATA", "AGE" };
+   // The listing has only metadata; data keys are fetched when the row is shown and cached by cluster and uid
+   private final Map<Cluster, Map<String, Summary>> summaries = new ConcurrentHashMap<>();
+   private final RowCache<ConfigMap> rowCache = new RowCache<>(COLUMNS, cm -> cm.getMetadata().getCreationTimestamp());
 
    @Override
    public String[] getColumns() {
@@ -21,15 +29,81 @@ public class ConfigMaps extends AbstractResources {
    }
 
    @Override
-   public List<String[]> fetchRows(Ocpp ocpp) {
-      return ocpp.oc.configMaps().inNamespace(ocpp.ns()).list().getItems().stream().map(cm -> new String[] {
+   public List<Row> fetchRows(Ocpp ocpp, String ns) {
+      if (ServerTable.ENABLED) {
+         return ServerTable.fetch(ocpp, "api/v1/namespaces/" + ns + "/configmaps", COLUMNS);
+      }
+      String path = ns == null ? "api/v1/configmaps" : "api/v1/namespaces/" + ns + "/configmaps";
+      // the summaries are fetched later, possibly after switching to another cluster
+      Cluster cluster = ocpp.cluster();
+      Map<String, Summary> summaries = this.summaries.computeIfAbsent(cluster, c -> new ConcurrentHashMap<>());
+      List<ConfigMap> configMaps = new ArrayList<>(cluster.informers.getWithSource("configmaps", ns,
+            oc -> new MetadataSource<>(oc, path, ConfigMap::new)).items());
+      Set<String> uids = new HashSet<>();
+      configMaps.forEach(cm -> uids.add(cm.getMetadata().getUid()));
+      // keep summaries from other namespaces of multi-namespace views
+      summaries.entrySet().removeIf(e -> (ns == null || ns.equals(e.getValue().namespace)) && !uids.contains(e.getKey()));
+      // the row changes also when we get the summary
+      return rowCache.rows(ns, configMaps, cm -> cm.getMetadata().getResourceVersion() + "/" + currentSummary(summaries, cm), cm -> toRow(cluster, summaries, cm))
+            .sorted(Row.BY_NAME).collect(Collectors.toList());
+   }
+
+   @Override
+   public boolean cheapCells() {
+      // the summary of each row is fetched separately
+      return false;
+   }
+
+   String[] toRow(Cluster cluster, Map<String, Summary> summaries, ConfigMap cm) {
+      return new String[] {
          cm.getMetadata().getName(),
-         describeData(cm.getData()),
-         Util.getAge(cm.getMetadata().getCreationTimestamp())
-      }).collect(Collectors.toList());
+         summary(cluster, summaries, cm),
+         null // AGE is rendered by Row
+      };
+   }
+
+   private static String currentSummary(Map<String, Summary> summaries, ConfigMap cm) {
+      Summary summary = summaries.get(cm.getMetadata().getUid());
+      return summary != null && summary.resourceVersion.equals(cm.getMetadata().getResourceVersion()) ? summary.text : "";
+   }
+
+   /**
+    * Called only for rows that are displayed; fetches the full config map in background
+    * unless we already have the summary for its current resource version.
+    */
+   private String summary(Cluster cluster, Map<String, Summary> summaries, ConfigMap cm) {
+      String uid = cm.getMetadata().getUid();
+      String resourceVersion = cm.getMetadata().getResourceVersion();
+      if (cm.getData() != null) {
+         return describeData(cm.getData());
+      }
+      Summary summary = summaries.get(uid);
+      if (summary != null && summary.resourceVersion.equals(resourceVersion)) {
+         return summary.text;
+      }
+      String ns = cm.getMetadata().getNamespace();
+      Summary pending = new Summary(ns, resourceVersion, summary == null ? "..." : summary.text);
+      if (summary == null ? summaries.putIfAbsent(uid, pending) == null : summaries.replace(uid, summary, pending)) {
+         String name = cm.getMetadata().getName();
+         cluster.informers.loader.execute(() -> {
+            String text;
+            try {
+               ConfigMap full = cluster.oc.configMaps().inNamespace(ns).withName(name).get();
+               text = full == null ? "" : describeData(full.getData());
+            } catch (RuntimeException e) {
+               text = "?";
+            }
+            summaries.replace(uid, pending, new Summary(ns, resourceVersion, text));
+            cluster.informers.onProgress.run();
+         });
+      }
+      return pending.text;
    }
 
    private String describeData(Map<String, String> data) {
+      if (data == null) {
+         return "0: ";
+      }
       StringBuilder sb = new StringBuilder();
       sb.append(data.size()).append(": ");
       boolean first = true;
@@ -59,6 +133,18 @@ public class ConfigMaps extends AbstractResources {
 
    @Override
    public NonNamespaceOperation<ConfigMap, ConfigMapList, DoneableConfigMap, Resource<ConfigMap, DoneableConfigMap>> getResources(Ocpp ocpp, List<String> row) {
-      return ocpp.oc.configMaps().inNamespace(ocpp.ns());
+      return ocpp.oc.configMaps().inNamespace(ocpp.ns(row));
+   }
+
+   private static class Summary {
+      final String namespace;
+      final String resourceVersion;
+      final String text;
+
+      Summary(String namespace, String resourceVersion, String text) {
+         this.namespace = namespace;
+         this.resourceVersion = resourceVersion;
+         this.text = text;
+      }
    }
 }
@@ -0,0 +1,538 @@
+package io.openshift.ocpp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.ConfigMap;
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.ContainerPort;
+import io.fabric8.kubernetes.api.model.ContainerState;
+import io.fabric8.kubernetes.api.model.ContainerStatus;
+import io.fabric8.kubernetes.api.model.EnvVar;
+import io.fabric8.kubernetes.api.model.Event;
+import io.fabric8.kubernetes.api.model.EventList;
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.LabelSelector;
+import io.fabric8.kubernetes.api.model.Node;
+import io.fabric8.kubernetes.api.model.NodeAddress;
+import io.fabric8.kubernetes.api.model.NodeCondition;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.api.model.ObjectReference;
+import io.fabric8.kubernetes.api.model.OwnerReference;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.PodCondition;
+import io.fabric8.kubernetes.api.model.PodTemplateSpec;
+import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.api.model.ReplicationController;
+import io.fabric8.kubernetes.api.model.Service;
+import io.fabric8.kubernetes.api.model.ServicePort;
+import io.fabric8.kubernetes.api.model.Taint;
+import io.fabric8.kubernetes.api.model.Volume;
+import io.fabric8.kubernetes.api.model.VolumeMount;
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import io.fabric8.kubernetes.api.model.apps.Deployment;
+import io.fabric8.kubernetes.api.model.apps.DeploymentCondition;
+import io.fabric8.kubernetes.api.model.apps.ReplicaSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.batch.CronJob;
+import io.fabric8.kubernetes.api.model.batch.Job;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.openshift.api.model.DeploymentConfig;
+import io.fabric8.openshift.api.model.DeploymentTriggerPolicy;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+/**
+ * Renders resources as text in the spirit of <code>oc describe</code>, without running <code>oc</code>:
+ * metadata, the interesting parts of spec and status of the built-in kinds, and the events
+ * involving the resource. Other kinds get the metadata and events only.
+ */
+public class Describer {
+   private static final int KEY_WIDTH = 20;
+   private static final int INDENT = 2;
+
+   private final OpenShiftClient oc;
+   private final StringBuilder sb = new StringBuilder();
+
+   private Describer(OpenShiftClient oc) {
+      this.oc = oc;
+   }
+
+   /**
+    * Lists the events of the resource; blocks.
+    */
+   public static String describe(OpenShiftClient oc, HasMetadata resource) {
+      Describer describer = new Describer(oc);
+      describer.metadata(resource.getMetadata());
+      if (resource instanceof Pod) {
+         describer.pod((Pod) resource);
+      } else if (resource instanceof Deployment) {
+         describer.deployment((Deployment) resource);
+      } else if (resource instanceof DeploymentConfig) {
+         describer.deploymentConfig((DeploymentConfig) resource);
+      } else if (resource instanceof ReplicaSet) {
+         describer.replicaSet((ReplicaSet) resource);
+      } else if (resource instanceof ReplicationController) {
+         describer.replicationController((ReplicationController) resource);
+      } else if (resource instanceof StatefulSet) {
+         describer.statefulSet((StatefulSet) resource);
+      } else if (resource instanceof DaemonSet) {
+         describer.daemonSet((DaemonSet) resource);
+      } else if (resource instanceof Job) {
+         describer.job((Job) resource);
+      } else if (resource instanceof CronJob) {
+         describer.cronJob((CronJob) resource);
+      } else if (resource instanceof Service) {
+         describer.service((Service) resource);
+      } else if (resource instanceof Node) {
+         describer.node((Node) resource);
+      } else if (resource instanceof ConfigMap) {
+         describer.configMap((ConfigMap) resource);
+      }
+      describer.events(resource);
+      return describer.sb.toString();
+   }
+
+   private void metadata(ObjectMeta metadata) {
+      field(0, "Name", metadata.getName());
+      if (metadata.getNamespace() != null) {
+         field(0, "Namespace", metadata.getNamespace());
+      }
+      field(0, "Created", metadata.getCreationTimestamp() + " (" + Age.of(metadata.getCreationTimestamp()).text() + " ago)");
+      map(0, "Labels", metadata.getLabels());
+      map(0, "Annotations", metadata.getAnnotations());
+      for (OwnerReference owner : list(metadata.getOwnerReferences())) {
+         if (Boolean.TRUE.equals(owner.getController())) {
+            field(0, "Controlled By", owner.getKind() + "/" + owner.getName());
+         }
+      }
+      if (metadata.getDeletionTimestamp() != null) {
+         field(0, "Deleting Since", metadata.getDeletionTimestamp());
+      }
+   }
+
+   private void pod(Pod pod) {
+      field(0, "Node", pod.getSpec().getNodeName());
+      field(0, "Service Account", pod.getSpec().getServiceAccountName());
+      field(0, "Start Time", pod.getStatus().getStartTime());
+      field(0, "Status", pod.getStatus().getPhase());
+      field(0, "Reason", pod.getStatus().getReason());
+      field(0, "Message", pod.getStatus().getMessage());
+      field(0, "IP", pod.getStatus().getPodIP());
+      field(0, "QoS Class", pod.getStatus().getQosClass());
+      if (!list(pod.getSpec().getInitContainers()).isEmpty()) {
+         section(0, "Init Containers");
+         containers(INDENT, pod.getSpec().getInitContainers(), pod.getStatus().getInitContainerStatuses());
+      }
+      section(0, "Containers");
+      containers(INDENT, pod.getSpec().getContainers(), pod.getStatus().getContainerStatuses());
+      List<PodCondition> conditions = list(pod.getStatus().getConditions());
+      if (!conditions.isEmpty()) {
+         section(0, "Conditions");
+         for (PodCondition condition : conditions) {
+            field(INDENT, condition.getType(), condition.getStatus() + (condition.getReason() == null ? "" : " (" + condition.getReason() + ")"));
+         }
+      }
+      volumes(0, pod.getSpec().getVolumes());
+   }
+
+   private void deployment(Deployment deployment) {
+      field(0, "Selector", selector(deployment.getSpec().getSelector()));
+      field(0, "Replicas", deployment.getSpec().getReplicas() + " desired | " + number(deployment.getStatus().getUpdatedReplicas()) + " updated | "
+            + number(deployment.getStatus().getReplicas()) + " total | " + number(deployment.getStatus().getAvailableReplicas()) + " available | "
+            + number(deployment.getStatus().getUnavailableReplicas()) + " unavailable");
+      field(0, "Strategy", deployment.getSpec().getStrategy() == null ? null : deployment.getSpec().getStrategy().getType());
+      field(0, "Paused", deployment.getSpec().getPaused());
+      template(deployment.getSpec().getTemplate());
+      List<DeploymentCondition> conditions = list(deployment.getStatus().getConditions());
+      if (!conditions.isEmpty()) {
+         section(0, "Conditions");
+         for (DeploymentCondition condition : conditions) {
+            field(INDENT, condition.getType(), condition.getStatus() + (condition.getReason() == null ? "" : " (" + condition.getReason() + ")"));
+         }
+      }
+   }
+
+   private void deploymentConfig(DeploymentConfig dc) {
+      field(0, "Latest Version", dc.getStatus().getLatestVersion());
+      field(0, "Selector", map(dc.getSpec().getSelector()));
+      field(0, "Replicas", dc.getSpec().getReplicas() + " desired | " + number(dc.getStatus().getUpdatedReplicas()) + " updated | "
+            + number(dc.getStatus().getReplicas()) + " total | " + number(dc.getStatus().getAvailableReplicas()) + " available | "
+            + number(dc.getStatus().getUnavailableReplicas()) + " unavailable");
+      field(0, "Strategy", dc.getSpec().getStrategy() == null ? null : dc.getSpec().getStrategy().getType());
+      field(0, "Triggers", list(dc.getSpec().getTriggers()).stream().map(DeploymentTriggerPolicy::getType).collect(Collectors.joining(", ")));
+      template(dc.getSpec().getTemplate());
+   }
+
+   private void replicaSet(ReplicaSet rs) {
+      field(0, "Selector", selector(rs.getSpec().getSelector()));
+      field(0, "Replicas", number(rs.getStatus().getReplicas()) + " current / " + rs.getSpec().getReplicas() + " desired");
+      field(0, "Pods Status", number(rs.getStatus().getReadyReplicas()) + " ready / " + number(rs.getStatus().getAvailableReplicas()) + " available");
+      template(rs.getSpec().getTemplate());
+   }
+
+   private void replicationController(ReplicationController rc) {
+      field(0, "Selector", map(rc.getSpec().getSelector()));
+      field(0, "Replicas", number(rc.getStatus().getReplicas()) + " current / " + rc.getSpec().getReplicas() + " desired");
+      field(0, "Pods Status", number(rc.getStatus().getReadyReplicas()) + " ready / " + number(rc.getStatus().getAvailableReplicas()) + " available");
+      template(rc.getSpec().getTemplate());
+   }
+
+   private void statefulSet(StatefulSet sts) {
+      field(0, "Selector", selector(sts.getSpec().getSelector()));
+      field(0, "Service Name", sts.getSpec().getServiceName());
+      field(0, "Replicas", number(sts.getStatus().getReplicas()) + " current / " + sts.getSpec().getReplicas() + " desired");
+      field(0, "Pods Status", number(sts.getStatus().getReadyReplicas()) + " ready / " + number(sts.getStatus().getUpdatedReplicas()) + " updated");
+      field(0, "Update Strategy", sts.getSpec().getUpdateStrategy() == null ? null : sts.getSpec().getUpdateStrategy().getType());
+      template(sts.getSpec().getTemplate());
+   }
+
+   private void daemonSet(DaemonSet ds) {
+      field(0, "Selector", selector(ds.getSpec().getSelector()));
+      field(0, "Desired Nodes", ds.getStatus().getDesiredNumberScheduled());
+      field(0, "Current Nodes", ds.getStatus().getCurrentNumberScheduled());
+      field(0, "Ready Nodes", ds.getStatus().getNumberReady());
+      field(0, "Misscheduled", ds.getStatus().getNumberMisscheduled());
+      template(ds.getSpec().getTemplate());
+   }
+
+   private void job(Job job) {
+      field(0, "Parallelism", job.getSpec().getParallelism());
+      field(0, "Completions", job.getSpec().getCompletions());
+      field(0, "Start Time", job.getStatus().getStartTime());
+      field(0, "Completed At", job.getStatus().getCompletionTime());
+      field(0, "Pods Status", number(job.getStatus().getActive()) + " active / " + number(job.getStatus().getSucceeded()) + " succeeded / "
+            + number(job.getStatus().getFailed()) + " failed");
+      template(job.getSpec().getTemplate());
+   }
+
+   private void cronJob(CronJob cronJob) {
+      field(0, "Schedule", cronJob.getSpec().getSchedule());
+      field(0, "Concurrency Policy", cronJob.getSpec().getConcurrencyPolicy());
+      field(0, "Suspend", cronJob.getSpec().getSuspend());
+      field(0, "Last Schedule Time", cronJob.getStatus().getLastScheduleTime());
+      field(0, "Active Jobs", list(cronJob.getStatus().getActive()).stream().map(ObjectReference::getName).collect(Collectors.joining(", ")));
+      if (cronJob.getSpec().getJobTemplate() != null && cronJob.getSpec().getJobTemplate().getSpec() != null) {
+         template(cronJob.getSpec().getJobTemplate().getSpec().getTemplate());
+      }
+   }
+
+   private void service(Service service) {
+      field(0, "Selector", map(service.getSpec().getSelector()));
+      field(0, "Type", service.getSpec().getType());
+      field(0, "IP", service.getSpec().getClusterIP());
+      field(0, "External Name", service.getSpec().getExternalName());
+      for (ServicePort port : list(service.getSpec().getPorts())) {
+         String name = port.getName() == null ? "<unset>" : port.getName();
+         field(0, "Port", name + " " + port.getPort() + "/" + port.getProtocol());
+         field(0, "TargetPort", port.getTargetPort() == null ? null
+               : port.getTargetPort().getStrVal() != null ? port.getTargetPort().getStrVal() : port.getTargetPort().getIntVal() + "/" + port.getProtocol());
+         field(0, "NodePort", port.getNodePort());
+      }
+      field(0, "Session Affinity", service.getSpec().getSessionAffinity());
+   }
+
+   private void node(Node node) {
+      field(0, "Roles", list(labels(node.getMetadata()).keySet()).stream().filter(label -> label.startsWith("node-role.kubernetes.io/"))
+            .map(label -> label.substring("node-role.kubernetes.io/".length())).collect(Collectors.joining(",")));
+      field(0, "Unschedulable", node.getSpec().getUnschedulable());
+      field(0, "Taints", list(node.getSpec().getTaints()).stream().map(Describer::taint).collect(Collectors.joining(", ")));
+      List<NodeAddress> addresses = list(node.getStatus().getAddresses());
+      if (!addresses.isEmpty()) {
+         section(0, "Addresses");
+         for (NodeAddress address : addresses) {
+            field(INDENT, address.getType(), address.getAddress());
+         }
+      }
+      List<NodeCondition> conditions = list(node.getStatus().getConditions());
+      if (!conditions.isEmpty()) {
+         section(0, "Conditions");
+         for (NodeCondition condition : conditions) {
+            field(INDENT, condition.getType(), condition.getStatus() + (condition.getReason() == null ? "" : " (" + condition.getReason() + ")"));
+         }
+      }
+      quantities(0, "Capacity", node.getStatus().getCapacity());
+      quantities(0, "Allocatable", node.getStatus().getAllocatable());
+      if (node.getStatus().getNodeInfo() != null) {
+         section(0, "System Info");
+         field(INDENT, "OS Image", node.getStatus().getNodeInfo().getOsImage());
+         field(INDENT, "Kernel Version", node.getStatus().getNodeInfo().getKernelVersion());
+         field(INDENT, "Container Runtime", node.getStatus().getNodeInfo().getContainerRuntimeVersion());
+         field(INDENT, "Kubelet Version", node.getStatus().getNodeInfo().getKubeletVersion());
+      }
+   }
+
+   private void configMap(ConfigMap configMap) {
+      section(0, "Data");
+      for (Map.Entry<String, String> entry : new TreeMap<>(configMap.getData() == null ? new HashMap<>() : configMap.getData()).entrySet()) {
+         sb.append(entry.getKey()).append(":\n----\n").append(entry.getValue());
+         if (!entry.getValue().endsWith("\n")) {
+            sb.append('\n');
+         }
+      }
+      if (configMap.getBinaryData() != null && !configMap.getBinaryData().isEmpty()) {
+         section(0, "Binary Data");
+         for (Map.Entry<String, String> entry : configMap.getBinaryData().entrySet()) {
+            field(INDENT, entry.getKey(), Util.formatBytes(entry.getValue().length() * 3L / 4));
+         }
+      }
+   }
+
+   private void template(PodTemplateSpec template) {
+      if (template == null || template.getSpec() == null) {
+         return;
+      }
+      section(0, "Pod Template");
+      map(INDENT, "Labels", labels(template.getMetadata()));
+      field(INDENT, "Service Account", template.getSpec().getServiceAccountName());
+      if (!list(template.getSpec().getInitContainers()).isEmpty()) {
+         section(INDENT, "Init Containers");
+         containers(2 * INDENT, template.getSpec().getInitContainers(), null);
+      }
+      section(INDENT, "Containers");
+      containers(2 * INDENT, template.getSpec().getContainers(), null);
+      volumes(INDENT, template.getSpec().getVolumes());
+   }
+
+   private void containers(int indent, List<Container> containers, List<ContainerStatus> statuses) {
+      for (Container container : list(containers)) {
+         section(indent, container.getName());
+         int inner = indent + INDENT;
+         field(inner, "Image", container.getImage());
+         field(inner, "Ports", list(container.getPorts()).stream().map(Describer::port).collect(Collectors.joining(", ")));
+         field(inner, "Command", list(container.getCommand()).isEmpty() ? null : String.join(" ", container.getCommand()));
+         field(inner, "Args", list(container.getArgs()).isEmpty() ? null : String.join(" ", container.getArgs()));
+         ContainerStatus status = list(statuses).stream().filter(s -> container.getName().equals(s.getName())).findFirst().orElse(null);
+         if (status != null) {
+            field(inner, "State", state(status.getState()));
+            if (status.getLastState() != null && (status.getLastState().getTerminated() != null || status.getLastState().getWaiting() != null)) {
+               field(inner, "Last State", state(status.getLastState()));
+            }
+            field(inner, "Ready", status.getReady());
+            field(inner, "Restart Count", status.getRestartCount());
+         }
+         if (container.getResources() != null) {
+            quantities(inner, "Limits", container.getResources().getLimits());
+            quantities(inner, "Requests", container.getResources().getRequests());
+         }
+         List<EnvVar> env = list(container.getEnv());
+         if (!env.isEmpty()) {
+            section(inner, "Environment");
+            for (EnvVar var : env) {
+               field(inner + INDENT, var.getName(), var.getValue() != null ? var.getValue() : var.getValueFrom() == null ? "" : envSource(var));
+            }
+         }
+         List<VolumeMount> mounts = list(container.getVolumeMounts());
+         if (!mounts.isEmpty()) {
+            section(inner, "Mounts");
+            for (VolumeMount mount : mounts) {
+               line(inner + INDENT, mount.getMountPath() + " from " + mount.getName() + (Boolean.TRUE.equals(mount.getReadOnly()) ? " (ro)" : " (rw)"));
+            }
+         }
+      }
+   }
+
+   private void volumes(int indent, List<Volume> volumes) {
+      if (list(volumes).isEmpty()) {
+         return;
+      }
+      section(indent, "Volumes");
+      for (Volume volume : volumes) {
+         String source = volume.getConfigMap() != null ? "ConfigMap " + volume.getConfigMap().getName()
+               : volume.getSecret() != null ? "Secret " + volume.getSecret().getSecretName()
+               : volume.getPersistentVolumeClaim() != null ? "PersistentVolumeClaim " + volume.getPersistentVolumeClaim().getClaimName()
+               : volume.getEmptyDir() != null ? "EmptyDir"
+               : volume.getHostPath() != null ? "HostPath " + volume.getHostPath().getPath()
+               : volume.getProjected() != null ? "Projected"
+               : volume.getDownwardAPI() != null ? "DownwardAPI" : "other";
+         field(indent + INDENT, volume.getName(), source);
+      }
+   }
+
+   /**
+    * Failure to list the events is noted in the output rather than failing the whole description.
+    */
+   private void events(HasMetadata resource) {
+      sb.append('\n');
+      List<Event> events;
+      try {
+         String namespace = resource.getMetadata().getNamespace();
+         FilterWatchListDeletable<Event, EventList, ?, ?, ?> operation = namespace == null ? oc.events().inAnyNamespace() : oc.events().inNamespace(namespace);
+         events = new ArrayList<>(operation.withField("involvedObject.name", resource.getMetadata().getName())
+               .withField("involvedObject.kind", resource.getKind()).list().getItems());
+      } catch (KubernetesClientException e) {
+         sb.append("Events: failed to list: ").append(e.getMessage()).append('\n');
+         return;
+      }
+      if (events.isEmpty()) {
+         sb.append("Events: <none>\n");
+         return;
+      }
+      events.sort(Comparator.comparing(Describer::lastSeen, Comparator.nullsFirst(Comparator.naturalOrder())));
+      String[][] rows = new String[events.size() + 1][];
+      rows[0] = new String[] { "Type", "Reason", "Age", "From", "Message" };
+      for (int i = 0; i < events.size(); ++i) {
+         Event event = events.get(i);
+         String age = Age.of(lastSeen(event)).text();
+         if (event.getCount() != null && event.getCount() > 1) {
+            age += " (x" + event.getCount() + " over " + Age.of(event.getFirstTimestamp()).text() + ")";
+         }
+         String from = event.getSource() != null && event.getSource().getComponent() != null ? event.getSource().getComponent() : event.getReportingComponent();
+         rows[i + 1] = new String[] { event.getType(), event.getReason(), age, from, event.getMessage() == null ? "" : event.getMessage().trim() };
+      }
+      int[] widths = new int[rows[0].length - 1];
+      for (String[] row : rows) {
+         for (int i = 0; i < widths.length; ++i) {
+            widths[i] = Math.max(widths[i], String.valueOf(row[i]).length());
+         }
+      }
+      sb.append("Events:\n");
+      for (String[] row : rows) {
+         indent(INDENT);
+         for (int i = 0; i < widths.length; ++i) {
+            pad(String.valueOf(row[i]), widths[i] + 2);
+         }
+         sb.append(row[widths.length]).append('\n');
+      }
+   }
+
+   private static String lastSeen(Event event) {
+      if (event.getLastTimestamp() != null) {
+         return event.getLastTimestamp();
+      }
+      return event.getEventTime() != null && event.getEventTime().getTime() != null ? event.getEventTime().getTime() : event.getFirstTimestamp();
+   }
+
+   private static String state(ContainerState state) {
+      if (state == null) {
+         return null;
+      } else if (state.getRunning() != null) {
+         return "Running since " + state.getRunning().getStartedAt();
+      } else if (state.getWaiting() != null) {
+         return "Waiting: " + state.getWaiting().getReason() + (state.getWaiting().getMessage() == null ? "" : ", " + state.getWaiting().getMessage());
+      } else if (state.getTerminated() != null) {
+         return "Terminated: " + state.getTerminated().getReason() + ", exit code " + state.getTerminated().getExitCode()
+               + (state.getTerminated().getFinishedAt() == null ? "" : ", finished " + state.getTerminated().getFinishedAt());
+      }
+      return null;
+   }
+
+   private static String envSource(EnvVar var) {
+      if (var.getValueFrom().getSecretKeyRef() != null) {
+         return "<secret " + var.getValueFrom().getSecretKeyRef().getName() + "/" + var.getValueFrom().getSecretKeyRef().getKey() + ">";
+      } else if (var.getValueFrom().getConfigMapKeyRef() != null) {
+         return "<configmap " + var.getValueFrom().getConfigMapKeyRef().getName() + "/" + var.getValueFrom().getConfigMapKeyRef().getKey() + ">";
+      } else if (var.getValueFrom().getFieldRef() != null) {
+         return "<field " + var.getValueFrom().getFieldRef().getFieldPath() + ">";
+      } else if (var.getValueFrom().getResourceFieldRef() != null) {
+         return "<resource " + var.getValueFrom().getResourceFieldRef().getResource() + ">";
+      }
+      return "";
+   }
+
+   private static String port(ContainerPort port) {
+      return port.getContainerPort() + "/" + port.getProtocol() + (port.getName() == null ? "" : " (" + port.getName() + ")");
+   }
+
+   private static String taint(Taint taint) {
+      return taint.getKey() + (taint.getValue() == null ? "" : "=" + taint.getValue()) + ":" + taint.getEffect();
+   }
+
+   private static String selector(LabelSelector selector) {
+      if (selector == null) {
+         return null;
+      }
+      String labels = map(selector.getMatchLabels());
+      String expressions = list(selector.getMatchExpressions()).stream()
+            .map(e -> e.getKey() + " " + e.getOperator() + " (" + String.join(",", list(e.getValues())) + ")").collect(Collectors.joining(","));
+      return labels.isEmpty() ? expressions : expressions.isEmpty() ? labels : labels + "," + expressions;
+   }
+
+   private static String map(Map<String, String> map) {
+      return map == null ? "" : new TreeMap<>(map).entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(","));
+   }
+
+   private static Map<String, String> labels(ObjectMeta metadata) {
+      return metadata == null || metadata.getLabels() == null ? new HashMap<>() : metadata.getLabels();
+   }
+
+   private static <T> List<T> list(Collection<T> collection) {
+      return collection == null ? new ArrayList<>() : new ArrayList<>(collection);
+   }
+
+   private static String number(Integer value) {
+      return value == null ? "0" : value.toString();
+   }
+
+   private void map(int indent, String key, Map<String, String> map) {
+      if (map == null || map.isEmpty()) {
+         field(indent, key, "<none>");
+         return;
+      }
+      boolean first = true;
+      for (Map.Entry<String, String> entry : new TreeMap<>(map).entrySet()) {
+         if (first) {
+            indent(indent);
+            pad(key + ":", Math.max(1, KEY_WIDTH - indent));
+            first = false;
+         } else {
+            indent(Math.max(indent + key.length() + 2, KEY_WIDTH));
+         }
+         sb.append(entry.getKey()).append('=').append(entry.getValue().replace("\n", "\\n")).append('\n');
+      }
+   }
+
+   private void quantities(int indent, String key, Map<String, Quantity> quantities) {
+      if (quantities == null || quantities.isEmpty()) {
+         return;
+      }
+      section(indent, key);
+      for (Map.Entry<String, Quantity> entry : new TreeMap<>(quantities).entrySet()) {
+         field(indent + INDENT, entry.getKey(), entry.getValue().getAmount() + (entry.getValue().getFormat() == null ? "" : entry.getValue().getFormat()));
+      }
+   }
+
+   /**
+    * Skips fields without value.
+    */
+   private void field(int indent, String key, Object value) {
+      if (value == null || "".equals(value)) {
+         return;
+      }
+      indent(indent);
+      pad(key + ":", Math.max(1, KEY_WIDTH - indent));
+      sb.append(value).append('\n');
+   }
+
+   private void section(int indent, String title) {
+      indent(indent);
+      sb.append(title).append(":\n");
+   }
+
+   private void line(int indent, String text) {
+      indent(indent);
+      sb.append(text).append('\n');
+   }
+
+   private void indent(int indent) {
+      for (int i = 0; i < indent; ++i) {
+         sb.append(' ');
+      }
+   }
+
+   private void pad(String text, int width) {
+      sb.append(text);
+      for (int i = text.length(); i < width; ++i) {
+         sb.append(' ');
+      }
+      if (text.length() >= width) {
+         sb.append(' ');
+      }
+   }
+}
@@ -0,0 +1,57 @@
+package io.openshift.ocpp;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import com.googlecode.lanterna.gui2.TextGUIThread;
+
+/**
+ * Single-slot handoff of snapshots to the GUI thread. A newer snapshot replaces one that has not been
+ * rendered yet, so a slow terminal never accumulates a backlog of updates, and the renders are spaced
+ * at least <code>1 / maxFps</code> seconds apart.
+ */
+public class FrameMailbox<T> {
+   static final int MAX_FPS = Integer.getInteger("ocpp.maxFps", 10);
+
+   private final TextGUIThread guiThread;
+   private final Scheduler scheduler;
+   private final Consumer<T> render;
+   private final long frameNanos;
+   private final AtomicReference<T> latest = new AtomicReference<>();
+   private final AtomicBoolean scheduled = new AtomicBoolean();
+   private volatile long lastFrame = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+
+   /**
+    * @param render Invoked in GUI thread with the latest snapshot.
+    */
+   public FrameMailbox(TextGUIThread guiThread, Scheduler scheduler, int maxFps, Consumer<T> render) {
+      this.guiThread = guiThread;
+      this.scheduler = scheduler;
+      this.render = render;
+      this.frameNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, maxFps);
+   }
+
+   public void post(T snapshot) {
+      latest.set(snapshot);
+      if (scheduled.compareAndSet(false, true)) {
+         long delay = lastFrame + frameNanos - System.nanoTime();
+         if (delay <= 0) {
+            guiThread.invokeLater(this::drain);
+         } else {
+            scheduler.delay(() -> guiThread.invokeLater(this::drain), delay, TimeUnit.NANOSECONDS);
+         }
+      }
+   }
+
+   private void drain() {
+      // clear the flag first so that a snapshot posted from now on schedules another drain
+      scheduled.set(false);
+      T snapshot = latest.getAndSet(null);
+      if (snapshot != null) {
+         lastFrame = System.nanoTime();
+         render.accept(snapshot);
+      }
+   }
+}
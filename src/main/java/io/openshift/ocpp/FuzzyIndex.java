@@ -0,0 +1,99 @@
+package io.openshift.ocpp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Narrows a list of names by substring or fuzzy (subsequence) match while the user types. Each name has
+ * a bitmask of the characters it contains, so most names that don't match are rejected without scanning them,
+ * and a query that extends the previous one is searched only among the previous matches.
+ * <p>
+ * Not thread-safe; used from the GUI thread.
+ */
+public class FuzzyIndex {
+   private final List<String> names;
+   private final String[] lowerCase;
+   private final long[] masks;
+   private String lastQuery = "";
+   private int[] lastMatches;
+   private int lastCount;
+
+   /**
+    * @param names Names in the order they should be listed, e.g. most recently used first.
+    */
+   public FuzzyIndex(List<String> names) {
+      this.names = names;
+      this.lowerCase = new String[names.size()];
+      this.masks = new long[names.size()];
+      for (int i = 0; i < lowerCase.length; ++i) {
+         lowerCase[i] = names.get(i).toLowerCase(Locale.ROOT);
+         masks[i] = mask(lowerCase[i]);
+      }
+   }
+
+   private static long mask(String s) {
+      long mask = 0;
+      for (int i = 0; i < s.length(); ++i) {
+         mask |= 1L << (s.charAt(i) & 63);
+      }
+      return mask;
+   }
+
+   /**
+    * @return Matching names: prefix matches first, then substring and fuzzy matches, each group in the original order.
+    */
+   public List<String> match(String query) {
+      query = query.toLowerCase(Locale.ROOT);
+      int[] candidates;
+      int count;
+      if (lastMatches != null && query.startsWith(lastQuery)) {
+         // anything matching the longer query matched the shorter one, too
+         candidates = lastMatches;
+         count = lastCount;
+      } else {
+         candidates = null;
+         count = names.size();
+      }
+      long queryMask = mask(query);
+      int[] matches = new int[count];
+      int matched = 0;
+      List<String> prefix = new ArrayList<>();
+      List<String> substring = new ArrayList<>();
+      List<String> fuzzy = new ArrayList<>();
+      for (int c = 0; c < count; ++c) {
+         int i = candidates == null ? c : candidates[c];
+         if ((masks[i] & queryMask) != queryMask) {
+            continue;
+         }
+         int index = lowerCase[i].indexOf(query);
+         if (index == 0) {
+            prefix.add(names.get(i));
+         } else if (index > 0) {
+            substring.add(names.get(i));
+         } else if (isSubsequence(query, lowerCase[i])) {
+            fuzzy.add(names.get(i));
+         } else {
+            continue;
+         }
+         matches[matched++] = i;
+      }
+      lastQuery = query;
+      lastMatches = matches;
+      lastCount = matched;
+      prefix.addAll(substring);
+      prefix.addAll(fuzzy);
+      return prefix;
+   }
+
+   private static boolean isSubsequence(String query, String name) {
+      int from = 0;
+      for (int i = 0; i < query.length(); ++i) {
+         from = name.indexOf(query.charAt(i), from) + 1;
+         if (from == 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+}
@@ -0,0 +1,107 @@
+package io.openshift.ocpp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.gui2.ActionListBox;
+import com.googlecode.lanterna.gui2.BasicWindow;
+import com.googlecode.lanterna.gui2.Direction;
+import com.googlecode.lanterna.gui2.Label;
+import com.googlecode.lanterna.gui2.LinearLayout;
+import com.googlecode.lanterna.gui2.Panel;
+import com.googlecode.lanterna.gui2.Window;
+import com.googlecode.lanterna.gui2.WindowListenerAdapter;
+import com.googlecode.lanterna.input.KeyStroke;
+import com.googlecode.lanterna.input.KeyType;
+
+/**
+ * Lists names narrowed by what the user types (see {@link FuzzyIndex}); arrows and Enter select the name.
+ * The names can be provided after the window opens, e.g. when they are still loading.
+ */
+class FuzzyPicker extends BasicWindow {
+   // more matches are not listed, the user should type more
+   private static final int MAX_ITEMS = 200;
+
+   private final Map<String, Runnable> extraActions;
+   private final Consumer<String> onSelect;
+   private final Label queryLabel = new Label("");
+   private final ActionListBox listBox;
+   private FuzzyIndex index = new FuzzyIndex(new ArrayList<>());
+   private String query = "";
+   private String message;
+
+   /**
+    * @param extraActions Listed before the names while there is no query, e.g. <code>&lt;all namespaces&gt;</code>.
+    */
+   FuzzyPicker(String title, TerminalSize size, Map<String, Runnable> extraActions, Consumer<String> onSelect) {
+      super(title);
+      this.extraActions = new LinkedHashMap<>(extraActions);
+      this.onSelect = onSelect;
+      setHints(new HashSet<>(Arrays.asList(Window.Hint.CENTERED, Window.Hint.MODAL)));
+      setCloseWindowWithEscape(true);
+      Panel panel = new Panel(new LinearLayout(Direction.VERTICAL));
+      panel.addComponent(queryLabel);
+      listBox = new ActionListBox(size);
+      panel.addComponent(listBox);
+      setComponent(panel);
+      addWindowListener(new WindowListenerAdapter() {
+         @Override
+         public void onInput(Window basePane, KeyStroke keyStroke, AtomicBoolean deliverEvent) {
+            if (keyStroke.getKeyType() == KeyType.Character && !keyStroke.isCtrlDown() && !keyStroke.isAltDown()) {
+               query += keyStroke.getCharacter();
+            } else if (keyStroke.getKeyType() == KeyType.Backspace && !query.isEmpty()) {
+               query = query.substring(0, query.length() - 1);
+            } else {
+               return;
+            }
+            // e.g. space would run the selected action otherwise
+            deliverEvent.set(false);
+            update();
+         }
+      });
+      update();
+   }
+
+   void setNames(List<String> names) {
+      index = new FuzzyIndex(names);
+      message = null;
+      update();
+   }
+
+   /**
+    * @param message Shown instead of the query, e.g. while the names are loading.
+    */
+   void setMessage(String message) {
+      this.message = message;
+      update();
+   }
+
+   private void update() {
+      listBox.clearItems();
+      if (query.isEmpty()) {
+         extraActions.forEach((label, action) -> listBox.addItem(label, () -> {
+            close();
+            action.run();
+         }));
+      }
+      List<String> matches = index.match(query);
+      for (String name : matches.subList(0, Math.min(MAX_ITEMS, matches.size()))) {
+         listBox.addItem(name, () -> {
+            close();
+            onSelect.accept(name);
+         });
+      }
+      String text = message != null ? message : query.isEmpty() ? "Type to filter" : "Filter: " + query;
+      if (matches.size() > MAX_ITEMS) {
+         text += " (" + (matches.size() - MAX_ITEMS) + " more)";
+      }
+      queryLabel.setText(text);
+   }
+}
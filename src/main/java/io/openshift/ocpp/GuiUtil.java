@@ -43,7 +43,7 @@ public class GuiUtil {
 
    static void runAndView(Ocpp ocpp, String[] command, String prefix, String suffix) {
       WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Downloading...");
-      ocpp.executor.submit(() -> {
+      ocpp.scheduler.submit(Scheduler.Lane.BULK, () -> {
          try {
             File tempFile = File.createTempFile(prefix, suffix);
             tempFile.deleteOnExit();
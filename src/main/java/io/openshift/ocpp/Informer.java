@@ -0,0 +1,385 @@
+package io.openshift.ocpp;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.kubernetes.client.dsl.internal.WatchConnectionManager;
+
+/**
+ * Local copy of all resources matching an operation, populated by a paginated list
+ * and then kept up-to-date from a watch. Reading the items does not hit the API server;
+ * the list runs in background and the items show up page by page.
+ */
+public class Informer<T extends HasMetadata> {
+   private final String key;
+   private final Informers informers;
+   private final Supplier<Source<T>> source;
+   private final Map<String, T> store = new ConcurrentHashMap<>();
+   // namespace/name -> uid, for looking up the resource of a row
+   private final Map<String, String> uidsByName = new ConcurrentHashMap<>();
+   // guards store modifications and listener notifications
+   private final Object storeLock = new Object();
+   private final List<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+   private volatile boolean synced;
+   private volatile boolean loading;
+   private volatile int loaded;
+   private KubernetesClientException failure;
+   // completed when the running load finishes
+   private CompletableFuture<Collection<T>> syncFuture;
+   // replaced when the informer is closed to discard results of a running load
+   private volatile Object generation = new Object();
+   private volatile long lastAccess = System.currentTimeMillis();
+   private volatile StoreWatcher watcher;
+   private Watch watch;
+
+   Informer(String key, Informers informers, Supplier<Source<T>> source) {
+      this.key = key;
+      this.informers = informers;
+      this.source = source;
+   }
+
+   public String key() {
+      return key;
+   }
+
+   public Collection<T> items() {
+      sync();
+      return new ArrayList<>(store.values());
+   }
+
+   /**
+    * Makes sure the store is being populated and watched, without copying the items.
+    * Throws the exception if the last attempt to list the resources has failed.
+    */
+   public void sync() {
+      lastAccess = System.currentTimeMillis();
+      synchronized (this) {
+         if (failure != null) {
+            KubernetesClientException e = failure;
+            failure = null;
+            throw e;
+         }
+         if (synced || loading) {
+            return;
+         }
+         loading = true;
+         loaded = 0;
+      }
+      Object generation = this.generation;
+      informers.loader.execute(() -> load(generation));
+   }
+
+   /**
+    * Like {@link #items()} but does not wait for the store nor poll it.
+    *
+    * @return Items once the store is up-to-date; completed exceptionally if listing the resources fails.
+    */
+   public CompletableFuture<Collection<T>> whenSynced() {
+      CompletableFuture<Collection<T>> future;
+      synchronized (this) {
+         if (syncFuture == null) {
+            syncFuture = new CompletableFuture<>();
+         }
+         future = syncFuture;
+      }
+      try {
+         sync();
+      } catch (KubernetesClientException e) {
+         completeSync(e);
+         return future;
+      }
+      synchronized (this) {
+         if (synced) {
+            completeSync(null);
+         }
+      }
+      return future;
+   }
+
+   private void completeSync(KubernetesClientException e) {
+      CompletableFuture<Collection<T>> future;
+      synchronized (this) {
+         future = syncFuture;
+         syncFuture = null;
+      }
+      if (future == null) {
+         return;
+      } else if (e != null) {
+         future.completeExceptionally(e);
+      } else {
+         // empty when the informer has been closed meanwhile
+         future.complete(new ArrayList<>(store.values()));
+      }
+   }
+
+   /**
+    * @return Resource from the store, or <code>null</code> if it's not there or the store is not up-to-date;
+    *         does not start loading the store.
+    */
+   public T find(String namespace, String name) {
+      if (!synced) {
+         return null;
+      }
+      String uid = uidsByName.get(nameKey(namespace, name));
+      return uid == null ? null : store.get(uid);
+   }
+
+   private static String nameKey(String namespace, String name) {
+      return namespace == null ? name : namespace + "/" + name;
+   }
+
+   /**
+    * @return Number of resources held in memory.
+    */
+   public int size() {
+      return store.size();
+   }
+
+   public boolean isLoading() {
+      return loading;
+   }
+
+   public int loaded() {
+      return loaded;
+   }
+
+   /**
+    * Returns listener of given type, registering new one if not present yet.
+    * The listener is notified about all resources already present in the store.
+    */
+   public <L extends Listener<T>> L listener(Class<L> type, Supplier<L> factory) {
+      synchronized (storeLock) {
+         for (Listener<T> listener : listeners) {
+            if (type.isInstance(listener)) {
+               return type.cast(listener);
+            }
+         }
+         L listener = factory.get();
+         store.values().forEach(listener::onAdd);
+         listeners.add(listener);
+         return listener;
+      }
+   }
+
+   long lastAccess() {
+      return lastAccess;
+   }
+
+   private void load(Object generation) {
+      try {
+         synchronized (this) {
+            stopWatch();
+         }
+         Source<T> op = source.get();
+         Map<String, T> removed = new HashMap<>(store);
+         String continueToken = null;
+         KubernetesResourceList<T> page;
+         do {
+            page = op.list(Informers.PAGE_SIZE, continueToken);
+            synchronized (storeLock) {
+               if (generation != this.generation) {
+                  return;
+               }
+               for (T item : page.getItems()) {
+                  String uid = item.getMetadata().getUid();
+                  removed.remove(uid);
+                  put(uid, item);
+               }
+            }
+            loaded += page.getItems().size();
+            continueToken = page.getMetadata().getContinue();
+            informers.onProgress.run();
+         } while (continueToken != null && !continueToken.isEmpty());
+         synchronized (storeLock) {
+            if (generation != this.generation) {
+               return;
+            }
+            for (String uid : removed.keySet()) {
+               remove(uid);
+            }
+         }
+         StoreWatcher watcher = new StoreWatcher();
+         synchronized (this) {
+            if (generation != this.generation) {
+               return;
+            }
+            // events may come before watch() returns
+            this.watcher = watcher;
+         }
+         // the store is served only once the watch is open, don't block readers meanwhile
+         Watch watch = op.watch(page.getMetadata().getResourceVersion(), watcher);
+         synchronized (this) {
+            if (generation != this.generation) {
+               watch.close();
+               return;
+            }
+            this.watch = watch;
+            synced = true;
+         }
+      } catch (KubernetesClientException e) {
+         synchronized (this) {
+            failure = e;
+         }
+      } catch (RuntimeException e) {
+         synchronized (this) {
+            failure = new KubernetesClientException("Failed to list " + key, e);
+         }
+      } finally {
+         loading = false;
+         KubernetesClientException failure;
+         synchronized (this) {
+            failure = this.failure;
+         }
+         completeSync(failure);
+         informers.onProgress.run();
+      }
+   }
+
+   private void put(String uid, T resource) {
+      T previous = store.put(uid, resource);
+      if (previous == null) {
+         uidsByName.put(nameKey(resource.getMetadata().getNamespace(), resource.getMetadata().getName()), uid);
+      }
+      for (Listener<T> listener : listeners) {
+         if (previous == null) {
+            listener.onAdd(resource);
+         } else {
+            listener.onUpdate(previous, resource);
+         }
+      }
+   }
+
+   private void remove(String uid) {
+      T previous = store.remove(uid);
+      if (previous != null) {
+         uidsByName.remove(nameKey(previous.getMetadata().getNamespace(), previous.getMetadata().getName()), uid);
+         for (Listener<T> listener : listeners) {
+            listener.onDelete(previous);
+         }
+      }
+   }
+
+   public synchronized void close() {
+      generation = new Object();
+      stopWatch();
+      synced = false;
+      synchronized (storeLock) {
+         store.clear();
+         uidsByName.clear();
+         listeners.clear();
+      }
+   }
+
+   private void stopWatch() {
+      watcher = null;
+      if (watch != null) {
+         watch.close();
+         watch = null;
+      }
+   }
+
+   private class StoreWatcher implements Watcher<T> {
+      @Override
+      public void eventReceived(Action action, T resource) {
+         if (watcher != this) {
+            // events from a watch we have already abandoned
+            return;
+         }
+         synchronized (storeLock) {
+            switch (action) {
+               case ADDED:
+               case MODIFIED:
+                  put(resource.getMetadata().getUid(), resource);
+                  break;
+               case DELETED:
+                  remove(resource.getMetadata().getUid());
+                  break;
+               case ERROR:
+                  synced = false;
+                  break;
+            }
+         }
+      }
+
+      @Override
+      public void onClose(KubernetesClientException cause) {
+         if (cause != null && watcher == this) {
+            // e.g. 410 Gone; we'll list again on next access
+            synced = false;
+         }
+      }
+   }
+
+   /**
+    * The API operations the informer needs; usually these are provided by fabric8 client.
+    */
+   public interface Source<T extends HasMetadata> {
+      KubernetesResourceList<T> list(Integer limit, String continueToken);
+
+      Watch watch(String resourceVersion, Watcher<T> watcher);
+
+      static <T extends HasMetadata> Source<T> of(FilterWatchListDeletable<T, ? extends KubernetesResourceList<T>, Boolean, Watch, Watcher<T>> operation) {
+         return new Source<T>() {
+            @Override
+            public KubernetesResourceList<T> list(Integer limit, String continueToken) {
+               return operation.list(limit, continueToken);
+            }
+
+            @Override
+            public Watch watch(String resourceVersion, Watcher<T> watcher) {
+               Watch watch = operation.withResourceVersion(resourceVersion).watch(watcher);
+               if (!isOpen(watch)) {
+                  watch.close();
+                  throw new KubernetesClientException("Watch did not open within 10 seconds");
+               }
+               return watch;
+            }
+         };
+      }
+
+      /**
+       * fabric8 stops waiting for the websocket after 10 seconds and returns the watch anyway,
+       * e.g. when there's no free slot in the HTTP dispatcher. Such watch may never open.
+       */
+      static boolean isOpen(Watch watch) {
+         if (!(watch instanceof WatchConnectionManager)) {
+            // e.g. the HTTP watch fabric8 falls back to
+            return true;
+         }
+         try {
+            Field started = WatchConnectionManager.class.getDeclaredField("started");
+            started.setAccessible(true);
+            return ((AtomicBoolean) started.get(watch)).get();
+         } catch (NoSuchFieldException | IllegalAccessException | ClassCastException e) {
+            // another client version, nothing to check
+            return true;
+         }
+      }
+   }
+
+   /**
+    * Incrementally maintained view derived from the resources.
+    */
+   public interface Listener<T> {
+      void onAdd(T resource);
+
+      void onUpdate(T oldResource, T newResource);
+
+      void onDelete(T resource);
+   }
+}
@@ -0,0 +1,150 @@
+package io.openshift.ocpp;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.dsl.FilterWatchListDeletable;
+import io.fabric8.openshift.client.OpenShiftClient;
+
+public class Informers {
+   static final long IDLE_TIMEOUT = Long.getLong("ocpp.informer.idleTimeout", 60_000);
+   static final int PAGE_SIZE = Integer.getInteger("ocpp.pageSize", 500);
+   // views over many namespaces start an informer per namespace, don't list all of them at once
+   static final int LOADERS = Math.max(1, Integer.getInteger("ocpp.informer.loaders", 8));
+
+   final ThreadPoolExecutor loader;
+   final Runnable onProgress;
+   private final Supplier<OpenShiftClient> client;
+   private final Map<String, Informer<?>> informers = new ConcurrentHashMap<>();
+   private final Map<String, CompletableFuture<HasMetadata>> fetches = new ConcurrentHashMap<>();
+
+   /**
+    * @param onProgress Invoked whenever a page of resources has been loaded.
+    */
+   public Informers(Supplier<OpenShiftClient> client, Runnable onProgress) {
+      this.client = client;
+      this.onProgress = onProgress;
+      AtomicInteger counter = new AtomicInteger();
+      this.loader = new ThreadPoolExecutor(LOADERS, LOADERS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+         Thread thread = new Thread(r, "informer-loader-" + counter.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      });
+      this.loader.allowCoreThreadTimeOut(true);
+   }
+
+   /**
+    * @param kind Unique identification of the resources (including any label selectors).
+    * @param namespace Namespace of the resources or <code>null</code> for cluster-wide resources.
+    * @param operation Invoked on each (re)list with the current client of the cluster.
+    */
+   public <T extends HasMetadata> Informer<T> get(String kind, String namespace, Function<OpenShiftClient, FilterWatchListDeletable<T, ? extends KubernetesResourceList<T>, Boolean, Watch, Watcher<T>>> operation) {
+      return getWithSource(kind, namespace, oc -> Informer.Source.of(operation.apply(oc)));
+   }
+
+   @SuppressWarnings("unchecked")
+   public <T extends HasMetadata> Informer<T> getWithSource(String kind, String namespace, Function<OpenShiftClient, Informer.Source<T>> source) {
+      String key = namespace == null ? kind : namespace + "/" + kind;
+      return (Informer<T>) informers.computeIfAbsent(key, k -> new Informer<>(k, this, () -> source.apply(client.get())));
+   }
+
+   /**
+    * Looks the resource up in the informer of the namespace or the cluster-wide one, without starting any.
+    *
+    * @param namespace Namespace of the resource or <code>null</code> for cluster-wide resources.
+    * @return The resource or <code>null</code> if it's not held by a running informer.
+    */
+   public HasMetadata find(String kind, String namespace, String name) {
+      for (String key : namespace == null ? new String[] { kind } : new String[] { namespace + "/" + kind, kind }) {
+         Informer<?> informer = informers.get(key);
+         HasMetadata resource = informer == null ? null : informer.find(namespace, name);
+         if (resource != null) {
+            return resource;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * @param namespace Namespace of the resources or <code>null</code> for cluster-wide resources.
+    * @return Number of resources held by the informer, without starting it.
+    */
+   public int size(String kind, String namespace) {
+      Informer<?> informer = informers.get(namespace == null ? kind : namespace + "/" + kind);
+      return informer == null ? 0 : informer.size();
+   }
+
+   /**
+    * Runs the request for a single resource unless the same one is in flight already; concurrent callers
+    * share its result.
+    *
+    * @param key Identifies the resource, e.g. <code>pods/namespace/name</code>.
+    */
+   public CompletableFuture<HasMetadata> fetch(String key, Supplier<HasMetadata> request, Executor executor) {
+      CompletableFuture<HasMetadata> fetch = new CompletableFuture<>();
+      CompletableFuture<HasMetadata> inFlight = fetches.putIfAbsent(key, fetch);
+      if (inFlight != null) {
+         return inFlight;
+      }
+      executor.execute(() -> {
+         HasMetadata resource;
+         try {
+            resource = request.get();
+         } catch (RuntimeException e) {
+            fetches.remove(key, fetch);
+            fetch.completeExceptionally(e);
+            return;
+         }
+         // callers from now on get a fresh copy
+         fetches.remove(key, fetch);
+         fetch.complete(resource);
+      });
+      return fetch;
+   }
+
+   /**
+    * @return Human-readable description of the lists in progress, or empty string.
+    */
+   public String describeLoading() {
+      List<Informer<?>> loading = informers.values().stream().filter(Informer::isLoading).collect(Collectors.toList());
+      String description = loading.stream().limit(2)
+            .map(informer -> "Loading " + informer.key() + ": " + informer.loaded() + "...")
+            .collect(Collectors.joining(", "));
+      // there's an informer per namespace in multi-namespace views
+      return loading.size() > 2 ? description + " and " + (loading.size() - 2) + " more" : description;
+   }
+
+   void expireIdle() {
+      long now = System.currentTimeMillis();
+      for (Iterator<Informer<?>> it = informers.values().iterator(); it.hasNext(); ) {
+         Informer<?> informer = it.next();
+         if (informer.lastAccess() + IDLE_TIMEOUT < now) {
+            it.remove();
+            informer.close();
+         }
+      }
+   }
+
+   void closeAll() {
+      for (Iterator<Informer<?>> it = informers.values().iterator(); it.hasNext(); ) {
+         Informer<?> informer = it.next();
+         it.remove();
+         informer.close();
+      }
+   }
+}
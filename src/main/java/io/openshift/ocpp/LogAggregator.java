@@ -0,0 +1,358 @@
+package io.openshift.ocpp;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Merges the logs of all containers in the pods matching a label selector into one {@link LogBuffer},
+ * ordered by timestamp and tagged with the pod (and container) each line comes from. The pods come from
+ * the pod informer, so containers are added and dropped as pods come and go.
+ * <p>
+ * The logs are polled rather than followed: every <code>-Docpp.logs.pollInterval=2000</code> ms each container
+ * is asked for the lines after the last one seen, on a pool of <code>-Docpp.logs.pollers=8</code> threads
+ * shared by all aggregated views. A hundred pods don't hold a hundred connections and threads; the price
+ * is that lines show up with the delay of the interval. Lines of one round are merged by their timestamps;
+ * a container that has more lines than one response holds is read further before others pass it.
+ */
+public class LogAggregator implements LogFeed {
+   private static final long POLL_INTERVAL = Long.getLong("ocpp.logs.pollInterval", 2000);
+   private static final int POLLERS = Integer.getInteger("ocpp.logs.pollers", 8);
+   private static final long LOADING_INTERVAL = 100;
+   private static final int LIMIT_BYTES = 1024 * 1024;
+   // each container gets a share of the tail, but at least this many lines
+   private static final int MIN_TAIL = 10;
+   private static final ThreadPoolExecutor POLLER_POOL;
+
+   static {
+      AtomicInteger counter = new AtomicInteger();
+      POLLER_POOL = new ThreadPoolExecutor(POLLERS, POLLERS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+         Thread thread = new Thread(r, "log-poller-" + counter.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      });
+      POLLER_POOL.allowCoreThreadTimeOut(true);
+   }
+
+   private final Ocpp ocpp;
+   private final OpenShiftClient oc;
+   private final Informers informers;
+   private final String namespace;
+   private final Map<String, String> selector;
+   private final Options options;
+   private final LogBuffer buffer;
+   private final Runnable onAppend;
+   private final OkHttpClient client;
+   private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+   // keyed by pod uid and container; used by one round at a time
+   private final Map<String, Source> sources = new HashMap<>();
+   // lines past a container that has not been read up to them yet
+   private List<Line> pending = new ArrayList<>();
+   private int tailLines = -1;
+   private volatile boolean closed;
+   private volatile String state = "loading pods";
+
+   /**
+    * @param selector Labels the pods must have.
+    */
+   public LogAggregator(Ocpp ocpp, String namespace, Map<String, String> selector, Options options, LogBuffer buffer, Runnable onAppend) {
+      this.ocpp = ocpp;
+      this.oc = ocpp.oc;
+      this.informers = ocpp.informers;
+      this.namespace = namespace;
+      this.selector = selector;
+      this.options = options;
+      this.buffer = buffer;
+      this.onAppend = onAppend;
+      this.client = Util.httpClient(oc);
+   }
+
+   public LogAggregator start() {
+      POLLER_POOL.execute(this::round);
+      return this;
+   }
+
+   private void round() {
+      if (closed) {
+         return;
+      }
+      Informer<Pod> informer = informers.get("pods", namespace, oc -> oc.pods().inNamespace(namespace));
+      Collection<Pod> pods;
+      try {
+         pods = informer.items();
+      } catch (KubernetesClientException e) {
+         state = "failed to list pods: " + e.getMessage();
+         onAppend.run();
+         next(POLL_INTERVAL);
+         return;
+      }
+      if (informer.isLoading()) {
+         next(LOADING_INTERVAL);
+         return;
+      }
+      updateSources(pods);
+      List<Source> polled = new ArrayList<>(sources.values());
+      @SuppressWarnings("unchecked")
+      CompletableFuture<List<Line>>[] polls = polled.stream()
+            .map(source -> CompletableFuture.supplyAsync(() -> poll(source), POLLER_POOL)).toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(polls).whenComplete((nil, throwable) -> merge(polled, polls));
+   }
+
+   private void updateSources(Collection<Pod> pods) {
+      Set<String> present = new HashSet<>();
+      int containers = 0;
+      for (Pod pod : pods) {
+         if (!matches(pod)) {
+            continue;
+         }
+         List<Container> podContainers = pod.getSpec().getContainers();
+         containers += podContainers.size();
+         for (Container container : podContainers) {
+            String key = pod.getMetadata().getUid() + "/" + container.getName();
+            present.add(key);
+            String tag = podContainers.size() > 1 ? pod.getMetadata().getName() + "/" + container.getName() : pod.getMetadata().getName();
+            sources.computeIfAbsent(key, k -> new Source(pod.getMetadata().getName(), container.getName(), tag));
+         }
+      }
+      // the lines already merged stay in the buffer
+      sources.keySet().retainAll(present);
+      if (tailLines < 0 && options.tailLines >= 0) {
+         // containers that start later get the same share
+         tailLines = Math.max(MIN_TAIL, options.tailLines / Math.max(1, containers));
+      }
+   }
+
+   private boolean matches(Pod pod) {
+      Map<String, String> labels = pod.getMetadata().getLabels();
+      if (labels == null) {
+         return selector.isEmpty();
+      }
+      for (Map.Entry<String, String> entry : selector.entrySet()) {
+         if (!entry.getValue().equals(labels.get(entry.getKey()))) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private List<Line> poll(Source source) {
+      if (closed) {
+         return new ArrayList<>();
+      }
+      HttpUrl.Builder url = HttpUrl.get(oc.getMasterUrl() + "api/v1/namespaces/" + namespace + "/pods/" + source.pod + "/log").newBuilder()
+            .addQueryParameter("container", source.container)
+            .addQueryParameter("timestamps", "true")
+            .addQueryParameter("limitBytes", String.valueOf(LIMIT_BYTES));
+      if (source.lastNanos < 0) {
+         if (tailLines >= 0) {
+            url.addQueryParameter("tailLines", String.valueOf(tailLines));
+         }
+         LogStream.addSince(url, options.since);
+      } else {
+         // the server compares whole seconds, the lines seen already are skipped below
+         url.addQueryParameter("sinceTime", Instant.ofEpochSecond(source.lastNanos / 1_000_000_000L).toString());
+      }
+      Call call = client.newCall(new Request.Builder().url(url.build()).get().build());
+      calls.add(call);
+      try (Response response = call.execute()) {
+         ResponseBody body = response.body();
+         if (response.code() == 400) {
+            // the container is not running yet
+            source.failure = null;
+            source.truncated = false;
+            return new ArrayList<>();
+         } else if (!response.isSuccessful() || body == null) {
+            source.failure = response.code() + " " + response.message();
+            source.truncated = false;
+            return new ArrayList<>();
+         }
+         byte[] bytes = body.bytes();
+         source.failure = null;
+         source.truncated = bytes.length >= LIMIT_BYTES;
+         List<Line> lines = source.lines(bytes);
+         if (lines.isEmpty()) {
+            // more lines within the same second than one response holds; don't hold the others back
+            source.truncated = false;
+         }
+         return lines;
+      } catch (IOException e) {
+         source.failure = e.getMessage();
+         source.truncated = false;
+         return new ArrayList<>();
+      } finally {
+         calls.remove(call);
+      }
+   }
+
+   private void merge(List<Source> polled, CompletableFuture<List<Line>>[] polls) {
+      if (closed) {
+         return;
+      }
+      List<Line> batch = pending;
+      for (CompletableFuture<List<Line>> poll : polls) {
+         if (!poll.isCompletedExceptionally()) {
+            batch.addAll(poll.join());
+         }
+      }
+      // lines past a truncated container wait until it catches up
+      long watermark = Long.MAX_VALUE;
+      int failing = 0;
+      boolean truncated = false;
+      for (Source source : polled) {
+         if (source.truncated) {
+            truncated = true;
+            watermark = Math.min(watermark, source.lastNanos);
+         }
+         if (source.failure != null) {
+            ++failing;
+         }
+      }
+      // stable, lines of one container keep their order
+      batch.sort(Comparator.comparingLong(line -> line.nanos));
+      pending = new ArrayList<>();
+      StringBuilder sb = new StringBuilder();
+      for (Line line : batch) {
+         if (line.nanos > watermark) {
+            pending.add(line);
+         } else {
+            sb.append('[').append(line.tag).append("] ").append(line.text).append('\n');
+         }
+      }
+      byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+      synchronized (buffer) {
+         // the buffer may be reused once this is closed
+         if (closed) {
+            return;
+         }
+         buffer.append(bytes, 0, bytes.length);
+      }
+      boolean done = !options.follow && !truncated;
+      state = polled.size() + (polled.size() == 1 ? " container" : " containers")
+            + (failing > 0 ? ", " + failing + " failing" : "") + (done ? ", complete" : options.follow ? ", following" : ", loading");
+      onAppend.run();
+      if (!done) {
+         next(truncated ? 0 : POLL_INTERVAL);
+      }
+   }
+
+   private void next(long delay) {
+      if (!closed) {
+         ocpp.scheduler.delay(() -> POLLER_POOL.execute(this::round), delay, TimeUnit.MILLISECONDS);
+      }
+   }
+
+   @Override
+   public String state() {
+      return state;
+   }
+
+   @Override
+   public void close() {
+      closed = true;
+      for (Call call : calls) {
+         call.cancel();
+      }
+   }
+
+   private static class Source {
+      final String pod;
+      final String container;
+      final String tag;
+      // timestamp of the last line read, or -1 before the first poll
+      long lastNanos = -1;
+      // number of lines read with that timestamp
+      int sameCount;
+      boolean truncated;
+      String failure;
+
+      Source(String pod, String container, String tag) {
+         this.pod = pod;
+         this.container = container;
+         this.tag = tag;
+      }
+
+      /**
+       * Parses lines prefixed by timestamps, skipping those read before.
+       */
+      List<Line> lines(byte[] bytes) {
+         List<Line> lines = new ArrayList<>();
+         String text = new String(bytes, StandardCharsets.UTF_8);
+         int end = text.length();
+         int lastNewline = text.lastIndexOf('\n');
+         if (truncated && lastNewline >= 0) {
+            // the last line is likely cut, it's read again in the next poll
+            end = lastNewline + 1;
+         }
+         int skip = sameCount;
+         for (int start = 0; start < end; ) {
+            int newline = text.indexOf('\n', start);
+            int lineEnd = newline < 0 || newline > end ? end : newline;
+            String line = text.substring(start, lineEnd);
+            start = lineEnd + 1;
+            int space = line.indexOf(' ');
+            long nanos;
+            try {
+               Instant instant = Instant.parse(space < 0 ? line : line.substring(0, space));
+               nanos = instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+            } catch (DateTimeParseException e) {
+               // not expected from the server, keep it with the previous line
+               nanos = Math.max(0, lastNanos);
+               space = -1;
+            }
+            if (nanos < lastNanos) {
+               continue;
+            } else if (nanos == lastNanos) {
+               if (skip > 0) {
+                  --skip;
+                  continue;
+               }
+               ++sameCount;
+            } else {
+               lastNanos = nanos;
+               sameCount = 1;
+               skip = 0;
+            }
+            lines.add(new Line(nanos, tag, space < 0 ? line : line.substring(space + 1)));
+         }
+         return lines;
+      }
+   }
+
+   private static class Line {
+      final long nanos;
+      final String tag;
+      final String text;
+
+      Line(long nanos, String tag, String text) {
+         this.nanos = nanos;
+         this.tag = tag;
+         this.text = text;
+      }
+   }
+}
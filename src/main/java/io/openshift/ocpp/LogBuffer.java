@@ -0,0 +1,143 @@
+package io.openshift.ocpp;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bounded ring of log lines held off-heap. When it's full the oldest lines are dropped; lines are numbered
+ * from the start of the stream, so a line keeps its number while it's held. Lines longer than
+ * {@link #MAX_LINE_LENGTH} are truncated.
+ * <p>
+ * The size in MiB is set by <code>-Docpp.logs.bufferMb=32</code>; the offsets of the lines take another quarter
+ * of that (one per 32 bytes, so lines shorter than that are dropped before the buffer is full).
+ */
+public class LogBuffer implements LogLines {
+   static final int DEFAULT_CAPACITY = Integer.getInteger("ocpp.logs.bufferMb", 32) << 20;
+   static final int MAX_LINE_LENGTH = 64 * 1024;
+
+   private final ByteBuffer data;
+   private final int capacity;
+   // offset of line n is at n % slots
+   private final LongBuffer starts;
+   private final int slots;
+   private final int maxLineLength;
+   // offset in the stream (not in the buffer) where the next byte goes
+   private long written;
+   // oldest line held
+   private long first;
+   // line being appended, not terminated yet
+   private long current;
+
+   public LogBuffer() {
+      this(DEFAULT_CAPACITY);
+   }
+
+   public LogBuffer(int capacity) {
+      this.capacity = capacity;
+      this.data = ByteBuffer.allocateDirect(capacity);
+      this.slots = Math.max(16, capacity / 32);
+      this.starts = ByteBuffer.allocateDirect(slots * 8).asLongBuffer();
+      this.maxLineLength = Math.min(MAX_LINE_LENGTH, capacity / 4);
+   }
+
+   /**
+    * Appends a chunk of the stream; the chunk does not need to end at line boundary.
+    */
+   public synchronized void append(byte[] bytes, int offset, int length) {
+      int end = offset + length;
+      int i = offset;
+      while (i < end) {
+         int newline = i;
+         while (newline < end && bytes[newline] != '\n') {
+            ++newline;
+         }
+         int room = maxLineLength - (int) (written - start(current));
+         write(bytes, i, Math.min(newline - i, Math.max(0, room)));
+         if (newline == end) {
+            return;
+         }
+         write(bytes, newline, 1);
+         ++current;
+         if (current - first >= slots) {
+            ++first;
+         }
+         starts.put((int) (current % slots), written);
+         i = newline + 1;
+      }
+   }
+
+   private void write(byte[] bytes, int offset, int length) {
+      if (length == 0) {
+         return;
+      }
+      while (first < current && written + length - capacity > start(first)) {
+         ++first;
+      }
+      int position = (int) (written % capacity);
+      int tail = Math.min(length, capacity - position);
+      ByteBuffer target = data.duplicate();
+      target.position(position);
+      target.put(bytes, offset, tail);
+      if (tail < length) {
+         target.position(0);
+         target.put(bytes, offset + tail, length - tail);
+      }
+      written += length;
+   }
+
+   private long start(long line) {
+      return starts.get((int) (line % slots));
+   }
+
+   /**
+    * @return Number of the oldest line held; this is also the number of lines dropped.
+    */
+   @Override
+   public synchronized long first() {
+      return first;
+   }
+
+   /**
+    * @return Number after the last line held; the last line may not be terminated yet.
+    */
+   @Override
+   public synchronized long end() {
+      return written > start(current) ? current + 1 : current;
+   }
+
+   /**
+    * @return Text of the line without the line terminator, or <code>null</code> if it has been dropped.
+    */
+   @Override
+   public synchronized String line(long line) {
+      if (line < first || line > current) {
+         return null;
+      }
+      long from = start(line);
+      // without the newline
+      long to = line < current ? start(line + 1) - 1 : written;
+      byte[] bytes = new byte[(int) (to - from)];
+      int position = (int) (from % capacity);
+      int tail = Math.min(bytes.length, capacity - position);
+      ByteBuffer source = data.duplicate();
+      source.position(position);
+      source.get(bytes, 0, tail);
+      if (tail < bytes.length) {
+         source.position(0);
+         source.get(bytes, tail, bytes.length - tail);
+      }
+      int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+      return new String(bytes, 0, length, StandardCharsets.UTF_8);
+   }
+
+   /**
+    * Drops all lines; numbering starts from zero again.
+    */
+   public synchronized void clear() {
+      written = 0;
+      first = 0;
+      current = 0;
+      starts.put(0, 0);
+   }
+}
@@ -0,0 +1,59 @@
+package io.openshift.ocpp;
+
+import java.io.Closeable;
+
+/**
+ * Source of lines displayed by {@link LogPane}.
+ */
+public interface LogFeed extends Closeable {
+   /**
+    * @return E.g. <code>following</code>, <code>complete</code> or reason of failure.
+    */
+   String state();
+
+   /**
+    * Stops appending lines; the buffer can be cleared and reused right after this returns.
+    */
+   @Override
+   void close();
+
+   interface Factory {
+      /**
+       * @param onAppend Invoked from a background thread after lines are appended and when the feed ends.
+       */
+      LogFeed start(Options options, LogBuffer buffer, Runnable onAppend);
+   }
+
+   class Options {
+      static final Options DEFAULT = new Options(Integer.getInteger("ocpp.logs.tail", 10_000), null, true);
+
+      // negative for the whole log
+      final int tailLines;
+      // duration such as 10m, or RFC 3339 timestamp; null for the whole log
+      final String since;
+      final boolean follow;
+
+      Options(int tailLines, String since, boolean follow) {
+         this.tailLines = tailLines;
+         this.since = since;
+         this.follow = follow;
+      }
+
+      Options withTailLines(int tailLines) {
+         return new Options(tailLines, since, follow);
+      }
+
+      Options withSince(String since) {
+         return new Options(tailLines, since, follow);
+      }
+
+      Options withFollow(boolean follow) {
+         return new Options(tailLines, since, follow);
+      }
+
+      @Override
+      public String toString() {
+         return (tailLines < 0 ? "all lines" : "tail " + tailLines) + (since == null ? "" : ", since " + since) + (follow ? ", follow" : "");
+      }
+   }
+}
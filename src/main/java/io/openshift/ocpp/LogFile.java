@@ -0,0 +1,466 @@
+package io.openshift.ocpp;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Whole log of a container downloaded into a temporary file, for logs that don't fit in {@link LogBuffer}.
+ * While downloading, the offset and timestamp of every {@value #STRIDE}th line are recorded; the file is then
+ * memory-mapped and lines are found through this index, scanning at most a stride.
+ * <p>
+ * Searches split the file into chunks of the index and scan them in parallel on a pool of
+ * <code>-Docpp.logs.searchThreads</code> threads (number of CPUs by default), comparing bytes; regular expressions
+ * are evaluated only on lines containing the text every match must contain. Results of recent searches are kept,
+ * so repeating one is instant. Letters are matched ignoring case, like in the table filter; only ASCII letters are folded.
+ */
+public class LogFile implements LogLines, Closeable {
+   static final int STRIDE = 64;
+   private static final int SEGMENT_BITS = 30;
+   private static final long SEGMENT_MASK = (1L << SEGMENT_BITS) - 1;
+   private static final int CHUNK = 64 * 1024;
+   // index entries scanned by one search task
+   private static final int TASK_STRIDES = 2048;
+   private static final int CACHED_SEARCHES = 8;
+   // longest timestamp prefix parsed
+   private static final int MAX_TIMESTAMP = 40;
+   private static final int SEARCH_THREADS = Integer.getInteger("ocpp.logs.searchThreads", Runtime.getRuntime().availableProcessors());
+   private static final ThreadPoolExecutor SEARCH_POOL;
+   // lowercase of ASCII letters, other bytes unchanged
+   private static final byte[] FOLD = new byte[256];
+
+   static {
+      for (int i = 0; i < FOLD.length; ++i) {
+         FOLD[i] = (byte) (i >= 'A' && i <= 'Z' ? i + ('a' - 'A') : i);
+      }
+      AtomicInteger counter = new AtomicInteger();
+      SEARCH_POOL = new ThreadPoolExecutor(SEARCH_THREADS, SEARCH_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+         Thread thread = new Thread(r, "log-search-" + counter.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      });
+      SEARCH_POOL.allowCoreThreadTimeOut(true);
+   }
+
+   private final File file;
+   private final long size;
+   private final long lines;
+   // offset and epoch nanos (Long.MIN_VALUE if there's no timestamp) of line i * STRIDE
+   private final long[] offsets;
+   private final long[] times;
+   private final MappedByteBuffer[] segments;
+   private final Map<String, CompletableFuture<long[]>> searches = new LinkedHashMap<String, CompletableFuture<long[]>>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<long[]>> eldest) {
+         return size() > CACHED_SEARCHES;
+      }
+   };
+   // lines are usually read in sequence, the next one starts after the last one read
+   private long cursorLine = -1;
+   private long cursorEnd;
+
+   private LogFile(File file, Indexer indexer) throws IOException {
+      this.file = file;
+      this.size = indexer.position;
+      this.lines = indexer.lines();
+      this.offsets = Arrays.copyOf(indexer.offsets, indexer.entries);
+      this.times = Arrays.copyOf(indexer.times, indexer.entries);
+      this.segments = new MappedByteBuffer[(int) ((size + SEGMENT_MASK) >>> SEGMENT_BITS)];
+      try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+         for (int i = 0; i < segments.length; ++i) {
+            long position = (long) i << SEGMENT_BITS;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_MASK + 1, size - position));
+         }
+      }
+   }
+
+   /**
+    * Downloads the log with timestamps; blocks until the log is complete.
+    */
+   public static LogFile download(OpenShiftClient oc, String namespace, String pod, String container) throws IOException {
+      HttpUrl url = HttpUrl.get(oc.getMasterUrl() + "api/v1/namespaces/" + namespace + "/pods/" + pod + "/log").newBuilder()
+            .addQueryParameter("container", container)
+            .addQueryParameter("timestamps", "true")
+            .build();
+      // a big log can take a while
+      OkHttpClient client = Util.httpClient(oc).newBuilder().readTimeout(0, TimeUnit.MILLISECONDS).build();
+      try (Response response = client.newCall(new Request.Builder().url(url).get().build()).execute()) {
+         ResponseBody body = response.body();
+         if (!response.isSuccessful() || body == null) {
+            throw new IOException("Failed to download log of " + pod + "/" + container + ": " + response.code() + " " + (body == null ? response.message() : body.string()));
+         }
+         File file = File.createTempFile("ocpp-" + pod + "-" + container + "-", ".log");
+         file.deleteOnExit();
+         try {
+            return read(body.byteStream(), file);
+         } catch (IOException | RuntimeException e) {
+            file.delete();
+            throw e;
+         }
+      }
+   }
+
+   /**
+    * Writes the text to a temporary file, e.g. to view it in a {@link LogPane}.
+    */
+   public static LogFile of(String text, String prefix) throws IOException {
+      File file = File.createTempFile("ocpp-" + prefix, ".txt");
+      file.deleteOnExit();
+      try {
+         return read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), file);
+      } catch (IOException | RuntimeException e) {
+         file.delete();
+         throw e;
+      }
+   }
+
+   /**
+    * Copies the stream into the file, indexing it.
+    */
+   static LogFile read(InputStream input, File file) throws IOException {
+      Indexer indexer = new Indexer();
+      try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file), CHUNK)) {
+         byte[] chunk = new byte[CHUNK];
+         for (int n; (n = input.read(chunk)) >= 0; ) {
+            output.write(chunk, 0, n);
+            indexer.update(chunk, n);
+         }
+      }
+      indexer.finish();
+      return new LogFile(file, indexer);
+   }
+
+   public long size() {
+      return size;
+   }
+
+   @Override
+   public long first() {
+      return 0;
+   }
+
+   @Override
+   public long end() {
+      return lines;
+   }
+
+   @Override
+   public synchronized String line(long line) {
+      if (line < 0 || line >= lines) {
+         return null;
+      }
+      long start;
+      if (line == cursorLine + 1) {
+         start = cursorEnd;
+      } else {
+         start = offsets[(int) (line / STRIDE)];
+         for (int i = (int) (line % STRIDE); i > 0; --i) {
+            start = lineEnd(start, size) + 1;
+         }
+      }
+      long end = lineEnd(start, size);
+      cursorLine = line;
+      cursorEnd = end + 1;
+      int length = (int) Math.min(end - start, LogBuffer.MAX_LINE_LENGTH);
+      byte[] bytes = copy(start, length, new byte[length]);
+      if (length > 0 && bytes[length - 1] == '\r') {
+         --length;
+      }
+      return new String(bytes, 0, length, StandardCharsets.UTF_8);
+   }
+
+   /**
+    * @return Time span of the log, or <code>null</code> if its lines don't start with timestamps.
+    */
+   public Instant[] timeSpan() {
+      long from = Long.MIN_VALUE;
+      long to = Long.MIN_VALUE;
+      for (long time : times) {
+         if (time != Long.MIN_VALUE) {
+            from = from == Long.MIN_VALUE ? time : from;
+            to = time;
+         }
+      }
+      return from == Long.MIN_VALUE ? null : new Instant[] { toInstant(from), toInstant(to) };
+   }
+
+   /**
+    * @return Numbers of matching lines, ascending.
+    * @throws java.util.regex.PatternSyntaxException If the regular expression is not valid.
+    */
+   public synchronized CompletableFuture<long[]> search(String query, boolean regex) {
+      String key = (regex ? "regex:" : "text:") + query;
+      CompletableFuture<long[]> cached = searches.get(key);
+      if (cached != null && !cached.isCompletedExceptionally()) {
+         return cached;
+      }
+      Pattern pattern = regex ? Pattern.compile(query, Pattern.CASE_INSENSITIVE) : null;
+      byte[] literal = foldCase((regex ? RowFilter.requiredLiteral(query) : query).getBytes(StandardCharsets.UTF_8));
+      List<CompletableFuture<long[]>> tasks = new ArrayList<>();
+      for (int from = 0; from < offsets.length; from += TASK_STRIDES) {
+         int to = Math.min(offsets.length, from + TASK_STRIDES);
+         int taskFrom = from;
+         tasks.add(CompletableFuture.supplyAsync(() -> searchChunk(taskFrom, to, literal, pattern), SEARCH_POOL));
+      }
+      CompletableFuture<long[]> search = CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).thenApply(nil -> {
+         long[] matches = new long[tasks.stream().mapToInt(task -> task.join().length).sum()];
+         int position = 0;
+         for (CompletableFuture<long[]> task : tasks) {
+            long[] chunkMatches = task.join();
+            System.arraycopy(chunkMatches, 0, matches, position, chunkMatches.length);
+            position += chunkMatches.length;
+         }
+         return matches;
+      });
+      searches.put(key, search);
+      return search;
+   }
+
+   // for benchmarks
+   synchronized void forgetSearches() {
+      searches.clear();
+   }
+
+   private long[] searchChunk(int fromStride, int toStride, byte[] literal, Pattern pattern) {
+      long end = toStride < offsets.length ? offsets[toStride] : size;
+      long line = (long) fromStride * STRIDE;
+      long lineStart = offsets[fromStride];
+      boolean found = literal.length == 0;
+      byte first = found ? 0 : literal[0];
+      Matcher matcher = pattern == null ? null : pattern.matcher("");
+      LongList matches = new LongList();
+      // scanning a copy is faster than reading the mapped buffer byte by byte
+      byte[] block = new byte[CHUNK];
+      for (long position = lineStart; position < end; ) {
+         long base = position & ~SEGMENT_MASK;
+         int length = (int) Math.min(CHUNK, Math.min(end, base + SEGMENT_MASK + 1) - position);
+         ByteBuffer segment = segments[(int) (position >>> SEGMENT_BITS)].duplicate();
+         segment.position((int) (position - base));
+         segment.get(block, 0, length);
+         // one pass looking for both line ends and the literal
+         for (int i = 0; i < length; ++i) {
+            byte b = block[i];
+            if (b == '\n') {
+               if (found && (matcher == null || find(matcher, lineStart, position + i, position, block))) {
+                  matches.add(line);
+               }
+               ++line;
+               lineStart = position + i + 1;
+               found = literal.length == 0;
+            } else if (!found && FOLD[b & 0xFF] == first) {
+               found = startsWith(position + i, end, literal);
+            }
+         }
+         position += length;
+      }
+      // the last line may not be terminated
+      if (lineStart < end && found && (matcher == null || find(matcher, lineStart, end, end, block))) {
+         matches.add(line);
+      }
+      return matches.toArray();
+   }
+
+   /**
+    * @param blockStart Position of the block in the file, if the line is in the block it's decoded from there.
+    */
+   private boolean find(Matcher matcher, long from, long to, long blockStart, byte[] block) {
+      int length = (int) Math.min(to - from, LogBuffer.MAX_LINE_LENGTH);
+      String line = from >= blockStart ? new String(block, (int) (from - blockStart), length, StandardCharsets.UTF_8)
+            : new String(copy(from, length, new byte[length]), StandardCharsets.UTF_8);
+      return matcher.reset(line).find();
+   }
+
+   /**
+    * @return Number of matches in each of the buckets dividing the time span of the log,
+    *         or its lines when these don't have timestamps.
+    */
+   public int[] histogram(long[] matches, int buckets) {
+      int[] histogram = new int[buckets];
+      Instant[] span = timeSpan();
+      long from = span == null ? 0 : toNanos(span[0]);
+      long length = span == null ? 0 : toNanos(span[1]) - from + 1;
+      for (long match : matches) {
+         long time = time(match);
+         int bucket = span == null || time == Long.MIN_VALUE ? (int) (match * buckets / Math.max(1, lines))
+               : (int) ((double) (time - from) * buckets / length);
+         ++histogram[Math.max(0, Math.min(buckets - 1, bucket))];
+      }
+      return histogram;
+   }
+
+   // time of the closest indexed line before, to keep it cheap
+   private long time(long line) {
+      for (int i = (int) (line / STRIDE); i >= 0; --i) {
+         if (times[i] != Long.MIN_VALUE) {
+            return times[i];
+         }
+      }
+      return Long.MIN_VALUE;
+   }
+
+   private boolean startsWith(long from, long limit, byte[] literal) {
+      if (from + literal.length > limit) {
+         return false;
+      }
+      for (int i = 1; i < literal.length; ++i) {
+         if (FOLD[get(from + i) & 0xFF] != literal[i]) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   private long lineEnd(long from, long limit) {
+      while (from < limit && get(from) != '\n') {
+         ++from;
+      }
+      return from;
+   }
+
+   private byte get(long position) {
+      return segments[(int) (position >>> SEGMENT_BITS)].get((int) (position & SEGMENT_MASK));
+   }
+
+   private byte[] copy(long position, int length, byte[] bytes) {
+      for (int i = 0; i < length; ++i) {
+         bytes[i] = get(position + i);
+      }
+      return bytes;
+   }
+
+   private static byte[] foldCase(byte[] bytes) {
+      for (int i = 0; i < bytes.length; ++i) {
+         bytes[i] = FOLD[bytes[i] & 0xFF];
+      }
+      return bytes;
+   }
+
+   private static Instant toInstant(long nanos) {
+      return Instant.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L), Math.floorMod(nanos, 1_000_000_000L));
+   }
+
+   private static long toNanos(Instant instant) {
+      return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+   }
+
+   /**
+    * Deletes the file; the mapping is released when this is garbage-collected.
+    */
+   @Override
+   public void close() {
+      file.delete();
+   }
+
+   private static class LongList {
+      long[] values = new long[16];
+      int size;
+
+      void add(long value) {
+         if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+         }
+         values[size++] = value;
+      }
+
+      long[] toArray() {
+         return Arrays.copyOf(values, size);
+      }
+   }
+
+   private static class Indexer {
+      long position;
+      long line;
+      boolean lineStart = true;
+      long[] offsets = new long[1024];
+      long[] times = new long[1024];
+      int entries;
+      // timestamp of the indexed line being read
+      final byte[] timestamp = new byte[MAX_TIMESTAMP];
+      int timestampLength = -1;
+
+      void update(byte[] bytes, int length) {
+         for (int i = 0; i < length; ++i) {
+            byte b = bytes[i];
+            if (lineStart) {
+               lineStart = false;
+               if (line % STRIDE == 0) {
+                  add(position + i);
+               }
+            }
+            if (timestampLength >= 0) {
+               if (b == ' ' || b == '\n' || timestampLength == MAX_TIMESTAMP) {
+                  parseTimestamp();
+               } else {
+                  timestamp[timestampLength++] = b;
+               }
+            }
+            if (b == '\n') {
+               ++line;
+               lineStart = true;
+            }
+         }
+         position += length;
+      }
+
+      private void add(long offset) {
+         if (entries == offsets.length) {
+            offsets = Arrays.copyOf(offsets, entries * 2);
+            times = Arrays.copyOf(times, entries * 2);
+         }
+         offsets[entries] = offset;
+         times[entries] = Long.MIN_VALUE;
+         ++entries;
+         timestampLength = 0;
+      }
+
+      private void parseTimestamp() {
+         try {
+            times[entries - 1] = toNanos(Instant.parse(new String(timestamp, 0, timestampLength, StandardCharsets.US_ASCII)));
+         } catch (DateTimeParseException e) {
+            // the line does not start with a timestamp
+         }
+         timestampLength = -1;
+      }
+
+      void finish() {
+         if (timestampLength >= 0) {
+            parseTimestamp();
+         }
+      }
+
+      long lines() {
+         return lineStart ? line : line + 1;
+      }
+   }
+}
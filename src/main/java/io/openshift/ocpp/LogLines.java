@@ -0,0 +1,21 @@
+package io.openshift.ocpp;
+
+/**
+ * Numbered lines displayed by {@link LogPane}.
+ */
+public interface LogLines {
+   /**
+    * @return Number of the oldest line held.
+    */
+   long first();
+
+   /**
+    * @return Number after the last line held.
+    */
+   long end();
+
+   /**
+    * @return Text of the line without the line terminator, or <code>null</code> if it's not held.
+    */
+   String line(long line);
+}
@@ -0,0 +1,448 @@
+package io.openshift.ocpp;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import com.googlecode.lanterna.TerminalPosition;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.TextColor;
+import com.googlecode.lanterna.graphics.ThemeStyle;
+import com.googlecode.lanterna.gui2.AbstractComponent;
+import com.googlecode.lanterna.gui2.BasicWindow;
+import com.googlecode.lanterna.gui2.BorderLayout;
+import com.googlecode.lanterna.gui2.ComponentRenderer;
+import com.googlecode.lanterna.gui2.Direction;
+import com.googlecode.lanterna.gui2.Label;
+import com.googlecode.lanterna.gui2.LinearLayout;
+import com.googlecode.lanterna.gui2.Panel;
+import com.googlecode.lanterna.gui2.TextGUIGraphics;
+import com.googlecode.lanterna.gui2.Window;
+import com.googlecode.lanterna.gui2.WindowListenerAdapter;
+import com.googlecode.lanterna.gui2.dialogs.MessageDialog;
+import com.googlecode.lanterna.gui2.dialogs.MessageDialogButton;
+import com.googlecode.lanterna.gui2.dialogs.TextInputDialog;
+import com.googlecode.lanterna.input.KeyStroke;
+
+/**
+ * Full-screen view of a log streamed into a {@link LogBuffer}. Only the visible lines are decoded and drawn;
+ * while following, the view sticks to the end of the log until the user scrolls up.
+ * <p>
+ * Lines of merged logs start with a <code>[tag]</code> naming their source, which is colored by the tag.
+ * A downloaded {@link LogFile} is displayed the same way and can be searched; the matches are counted
+ * in a histogram over the time span of the log.
+ */
+class LogPane extends BasicWindow {
+   // colors and cursor movements would garble the screen
+   private static final Pattern CONTROL = Pattern.compile("\u001b\\[[0-9;?]*[A-Za-z]|[\\x00-\\x08\\x0b-\\x1f\\x7f]");
+   private static final int HORIZONTAL_STEP = 8;
+   private static final TextColor[] TAG_COLORS = {
+         TextColor.ANSI.GREEN, TextColor.ANSI.CYAN, TextColor.ANSI.YELLOW, TextColor.ANSI.MAGENTA, TextColor.ANSI.BLUE, TextColor.ANSI.RED
+   };
+   private static final String BARS = " ▁▂▃▄▅▆▇█";
+
+   private final Ocpp ocpp;
+   private final LogFeed.Factory factory;
+   private final boolean tagged;
+   // either the buffer of the feed or the file
+   private final LogLines lines;
+   private final LogBuffer buffer;
+   private final LogFile file;
+   private final LogView view = new LogView();
+   private final Label histogram = new Label("");
+   private final Label status = new Label("");
+   private final FrameMailbox<Boolean> frames;
+   private LogFeed.Options options = LogFeed.Options.DEFAULT;
+   private LogFeed feed;
+   // first displayed line when not sticking to the end
+   private long top;
+   private boolean stickToEnd = true;
+   private int column;
+   // search in the file; matches are null while searching
+   private String query;
+   private boolean regex;
+   private long[] matches;
+   private int match = -1;
+
+   /**
+    * @param tagged Lines start with <code>[tag]</code>.
+    */
+   LogPane(Ocpp ocpp, String title, LogFeed.Factory factory, boolean tagged) {
+      this(ocpp, title, factory, tagged, new LogBuffer(), null);
+   }
+
+   /**
+    * The file is deleted when the pane is closed.
+    */
+   LogPane(Ocpp ocpp, String title, LogFile file) {
+      this(ocpp, title, null, false, null, file);
+   }
+
+   private LogPane(Ocpp ocpp, String title, LogFeed.Factory factory, boolean tagged, LogBuffer buffer, LogFile file) {
+      super(title);
+      this.ocpp = ocpp;
+      this.factory = factory;
+      this.tagged = tagged;
+      this.buffer = buffer;
+      this.file = file;
+      this.lines = file == null ? buffer : file;
+      this.frames = new FrameMailbox<>(ocpp.gui.getGUIThread(), ocpp.scheduler, FrameMailbox.MAX_FPS, nil -> update());
+      setHints(Arrays.asList(Window.Hint.FULL_SCREEN));
+      Panel bottom = new Panel(new LinearLayout(Direction.VERTICAL));
+      bottom.addComponent(histogram);
+      bottom.addComponent(status);
+      Panel panel = new Panel(new BorderLayout());
+      panel.addComponent(view, BorderLayout.Location.CENTER);
+      panel.addComponent(bottom, BorderLayout.Location.BOTTOM);
+      setComponent(panel);
+      addWindowListener(new WindowListenerAdapter() {
+         @Override
+         public void onInput(Window basePane, KeyStroke keyStroke, AtomicBoolean deliverEvent) {
+            if (handle(keyStroke)) {
+               deliverEvent.set(false);
+               update();
+            }
+         }
+      });
+   }
+
+   /**
+    * Opens a pane merging the logs of all pods matching the selector; called in GUI thread.
+    */
+   static void showMerged(Ocpp ocpp, String namespace, String name, Map<String, String> selector) {
+      if (selector == null || selector.isEmpty()) {
+         MessageDialog.showMessageDialog(ocpp.gui, "Logs", name + " does not select pods by labels", MessageDialogButton.OK);
+         return;
+      }
+      String title = namespace + "/" + selector.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(","));
+      new LogPane(ocpp, title, (options, buffer, onAppend) -> new LogAggregator(ocpp, namespace, selector, options, buffer, onAppend).start(), true).show();
+   }
+
+   /**
+    * Opens the pane and starts streaming; called in GUI thread.
+    */
+   void show() {
+      if (factory != null) {
+         restart();
+      } else {
+         update();
+      }
+      ocpp.gui.addWindow(this);
+   }
+
+   /**
+    * Opens the pane at the first line rather than following the end; called in GUI thread.
+    */
+   void showFromTop() {
+      stickToEnd = false;
+      top = 0;
+      show();
+   }
+
+   private void restart() {
+      if (feed != null) {
+         feed.close();
+      }
+      // the closed feed does not append anymore
+      buffer.clear();
+      top = 0;
+      stickToEnd = true;
+      feed = factory.start(options, buffer, () -> frames.post(Boolean.TRUE));
+      update();
+   }
+
+   @Override
+   public void close() {
+      if (feed != null) {
+         feed.close();
+      }
+      if (file != null) {
+         file.close();
+      }
+      super.close();
+   }
+
+   private boolean handle(KeyStroke keyStroke) {
+      int rows = Math.max(1, view.getSize().getRows());
+      switch (keyStroke.getKeyType()) {
+         case ArrowUp:
+            scroll(-1);
+            return true;
+         case ArrowDown:
+            scroll(1);
+            return true;
+         case PageUp:
+            scroll(-rows);
+            return true;
+         case PageDown:
+            scroll(rows);
+            return true;
+         case Home:
+            stickToEnd = false;
+            top = lines.first();
+            return true;
+         case End:
+            stickToEnd = true;
+            return true;
+         case ArrowLeft:
+            column = Math.max(0, column - HORIZONTAL_STEP);
+            return true;
+         case ArrowRight:
+            column += HORIZONTAL_STEP;
+            return true;
+         case Escape:
+            if (query != null) {
+               clearSearch();
+            } else {
+               close();
+            }
+            return true;
+         case Character:
+            break;
+         default:
+            return false;
+      }
+      if (keyStroke.getCharacter() == 'q') {
+         close();
+         return true;
+      }
+      return file == null ? handleFeedKey(keyStroke.getCharacter()) : handleFileKey(keyStroke.getCharacter());
+   }
+
+   private boolean handleFeedKey(char c) {
+      switch (c) {
+         case 'f':
+            options = options.withFollow(!options.follow);
+            restart();
+            return true;
+         case 't':
+            String tail = TextInputDialog.showDialog(ocpp.gui, "Tail", "Number of lines (empty for all):", options.tailLines < 0 ? "" : String.valueOf(options.tailLines));
+            if (tail != null) {
+               try {
+                  options = options.withTailLines(tail.trim().isEmpty() ? -1 : Integer.parseInt(tail.trim()));
+                  restart();
+               } catch (NumberFormatException e) {
+                  // keep the current tail
+               }
+            }
+            return true;
+         case 's':
+            String since = TextInputDialog.showDialog(ocpp.gui, "Since", "Duration (e.g. 10m, 2h) or RFC 3339 time; empty for all:", options.since == null ? "" : options.since);
+            if (since != null) {
+               options = options.withSince(since.trim().isEmpty() ? null : since.trim());
+               restart();
+            }
+            return true;
+         default:
+            return false;
+      }
+   }
+
+   private boolean handleFileKey(char c) {
+      switch (c) {
+         case '/':
+         case 'r':
+            boolean regex = c == 'r';
+            String input = TextInputDialog.showDialog(ocpp.gui, "Search", regex ? "Regular expression:" : "Text:",
+                  query == null || this.regex != regex ? "" : query);
+            if (input != null && !input.isEmpty()) {
+               search(input, regex);
+            }
+            return true;
+         case 'n':
+            jump(1);
+            return true;
+         case 'N':
+            jump(-1);
+            return true;
+         default:
+            return false;
+      }
+   }
+
+   private void search(String query, boolean regex) {
+      this.query = query;
+      this.regex = regex;
+      matches = null;
+      match = -1;
+      try {
+         file.search(query, regex).whenComplete((result, throwable) -> ocpp.gui.getGUIThread().invokeLater(() -> {
+            // another search may have started meanwhile
+            if (!query.equals(this.query) || regex != this.regex) {
+               return;
+            }
+            if (throwable != null) {
+               clearSearch();
+               GuiUtil.showException(ocpp, throwable);
+               return;
+            }
+            matches = result;
+            // the first match from the displayed lines on, or the last one
+            jump(1);
+            if (match < 0) {
+               jump(-1);
+            }
+            update();
+         }));
+      } catch (PatternSyntaxException e) {
+         clearSearch();
+         MessageDialog.showMessageDialog(ocpp.gui, "Search", e.getMessage(), MessageDialogButton.OK);
+      }
+   }
+
+   private void clearSearch() {
+      query = null;
+      matches = null;
+      match = -1;
+   }
+
+   /**
+    * Moves to the next or previous match after the current one, or after the displayed lines if the user has scrolled away.
+    */
+   private void jump(int direction) {
+      if (matches == null || matches.length == 0) {
+         return;
+      }
+      int rows = Math.max(1, view.getSize().getRows());
+      long displayed = displayedTop(rows);
+      long from;
+      if (match >= 0 && matches[match] >= displayed && matches[match] < displayed + rows) {
+         from = matches[match];
+      } else {
+         from = direction > 0 ? displayed - 1 : displayed + rows;
+      }
+      int index = Arrays.binarySearch(matches, from);
+      int next = direction > 0 ? (index >= 0 ? index + 1 : -index - 1) : (index >= 0 ? index - 1 : -index - 2);
+      if (next < 0 || next >= matches.length) {
+         return;
+      }
+      match = next;
+      top = Math.max(lines.first(), matches[match] - rows / 2);
+      stickToEnd = false;
+   }
+
+   private void scroll(int delta) {
+      int rows = Math.max(1, view.getSize().getRows());
+      long first = lines.first();
+      long end = lines.end();
+      long from = stickToEnd ? Math.max(first, end - rows) : top;
+      top = Math.max(first, Math.min(from + delta, end - rows));
+      stickToEnd = top + rows >= end;
+   }
+
+   private void update() {
+      int rows = Math.max(1, view.getSize().getRows());
+      long first = lines.first();
+      long end = lines.end();
+      long displayed = displayedTop(rows);
+      String position = String.format("lines %d-%d of %d%s", displayed + 1, Math.min(end, displayed + rows), end, first > 0 ? " (" + first + " dropped)" : "");
+      if (file == null) {
+         status.setText(String.format("%s | %s | %s | [f]ollow [t]ail [s]ince [q]uit",
+               position, options, stickToEnd ? feed.state() : "paused, End to resume"));
+      } else {
+         status.setText(String.format("%s | %s | %s | [/]search [r]egex [n]ext [N] previous [q]uit",
+               position, Util.formatBytes(file.size()), describeSearch()));
+      }
+      histogram.setText(matches == null || matches.length == 0 ? "" : describeHistogram(Math.max(1, view.getSize().getColumns())));
+      view.invalidate();
+   }
+
+   private String describeSearch() {
+      if (query == null) {
+         return "no search";
+      } else if (matches == null) {
+         return "searching " + query + "...";
+      } else if (matches.length == 0) {
+         return "no match of " + query;
+      }
+      return "match " + (match + 1) + "/" + matches.length + " of " + query;
+   }
+
+   /**
+    * @return E.g. <code>2020-01-01T10:00:00Z ▁ ▃█▂ 2020-01-01T11:00:00Z</code>
+    */
+   private String describeHistogram(int columns) {
+      Instant[] span = file.timeSpan();
+      String from = span == null ? "first line" : span[0].truncatedTo(ChronoUnit.SECONDS).toString();
+      String to = span == null ? "last line" : span[1].truncatedTo(ChronoUnit.SECONDS).toString();
+      int[] counts = file.histogram(matches, Math.max(10, columns - from.length() - to.length() - 2));
+      int max = Arrays.stream(counts).max().orElse(1);
+      StringBuilder sb = new StringBuilder(from).append(' ');
+      for (int count : counts) {
+         // a single match shows up, too
+         sb.append(BARS.charAt(count == 0 ? 0 : 1 + (int) ((long) (count - 1) * (BARS.length() - 2) / Math.max(1, max - 1))));
+      }
+      return sb.append(' ').append(to).toString();
+   }
+
+   private long displayedTop(int rows) {
+      long first = lines.first();
+      return stickToEnd ? Math.max(first, lines.end() - rows) : Math.max(first, top);
+   }
+
+   private static String printable(String line) {
+      if (line.indexOf('\t') >= 0) {
+         line = line.replace("\t", "    ");
+      }
+      return CONTROL.matcher(line).replaceAll("");
+   }
+
+   private class LogView extends AbstractComponent<LogView> {
+      @Override
+      public synchronized LogView setSize(TerminalSize size) {
+         if (!size.equals(getSize())) {
+            // the status shows the displayed lines, known once the view is laid out
+            frames.post(Boolean.TRUE);
+         }
+         return super.setSize(size);
+      }
+
+      @Override
+      protected ComponentRenderer<LogView> createDefaultRenderer() {
+         return new ComponentRenderer<LogView>() {
+            @Override
+            public TerminalSize getPreferredSize(LogView component) {
+               return new TerminalSize(80, 24);
+            }
+
+            @Override
+            public void drawComponent(TextGUIGraphics graphics, LogView component) {
+               TerminalSize size = graphics.getSize();
+               graphics.applyThemeStyle(getThemeDefinition().getNormal());
+               graphics.fill(' ');
+               long top = displayedTop(size.getRows());
+               long current = matches == null || match < 0 ? -1 : matches[match];
+               for (int row = 0; row < size.getRows(); ++row) {
+                  String line = lines.line(top + row);
+                  if (line == null) {
+                     break;
+                  }
+                  ThemeStyle style = top + row == current ? getThemeDefinition().getSelected() : getThemeDefinition().getNormal();
+                  graphics.applyThemeStyle(style);
+                  if (top + row == current) {
+                     graphics.drawLine(0, row, size.getColumns() - 1, row, ' ');
+                  }
+                  line = printable(line);
+                  if (column >= line.length()) {
+                     continue;
+                  }
+                  String visible = line.substring(column, Math.min(line.length(), column + size.getColumns()));
+                  int tagEnd = tagged && line.startsWith("[") ? line.indexOf(']') + 1 - column : 0;
+                  if (tagEnd > 0) {
+                     tagEnd = Math.min(tagEnd, visible.length());
+                     graphics.setForegroundColor(TAG_COLORS[Math.floorMod(line.substring(0, line.indexOf(']')).hashCode(), TAG_COLORS.length)]);
+                     graphics.putString(new TerminalPosition(0, row), visible.substring(0, tagEnd));
+                     graphics.applyThemeStyle(style);
+                  }
+                  graphics.putString(new TerminalPosition(tagEnd, row), visible.substring(tagEnd));
+               }
+            }
+         };
+      }
+   }
+}
@@ -0,0 +1,141 @@
+package io.openshift.ocpp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Streams the log of one container into a {@link LogBuffer} from its own thread, reading the response
+ * as it arrives so that the first lines show up right away.
+ */
+public class LogStream implements LogFeed {
+   private static final int CHUNK = 64 * 1024;
+   private static final Pattern DURATION = Pattern.compile("(\\d+)([smhd]?)");
+
+   final String namespace;
+   final String pod;
+   final String container;
+   private final OpenShiftClient oc;
+   private final Options options;
+   private final LogBuffer buffer;
+   private final Runnable onAppend;
+   private volatile Call call;
+   private volatile boolean closed;
+   private volatile String state = "connecting";
+
+   /**
+    * @param onAppend Invoked from the streaming thread after each chunk of lines and when the stream ends.
+    */
+   public LogStream(OpenShiftClient oc, String namespace, String pod, String container, Options options, LogBuffer buffer, Runnable onAppend) {
+      this.oc = oc;
+      this.namespace = namespace;
+      this.pod = pod;
+      this.container = container;
+      this.options = options;
+      this.buffer = buffer;
+      this.onAppend = onAppend;
+   }
+
+   public LogStream start() {
+      Thread thread = new Thread(this::run, "logs-" + pod);
+      thread.setDaemon(true);
+      thread.start();
+      return this;
+   }
+
+   private void run() {
+      HttpUrl.Builder url = HttpUrl.get(oc.getMasterUrl() + "api/v1/namespaces/" + namespace + "/pods/" + pod + "/log").newBuilder()
+            .addQueryParameter("container", container);
+      if (options.follow) {
+         url.addQueryParameter("follow", "true");
+      }
+      if (options.tailLines >= 0) {
+         url.addQueryParameter("tailLines", String.valueOf(options.tailLines));
+      }
+      addSince(url, options.since);
+      // a followed log can be quiet for long
+      OkHttpClient client = Util.httpClient(oc).newBuilder().readTimeout(0, TimeUnit.MILLISECONDS).build();
+      call = client.newCall(new Request.Builder().url(url.build()).get().build());
+      if (closed) {
+         return;
+      }
+      try (Response response = call.execute()) {
+         ResponseBody body = response.body();
+         if (!response.isSuccessful() || body == null) {
+            state = "failed: " + response.code() + " " + (body == null ? response.message() : body.string());
+            return;
+         }
+         state = options.follow ? "following" : "loading";
+         InputStream input = body.byteStream();
+         byte[] chunk = new byte[CHUNK];
+         for (int n; (n = input.read(chunk)) >= 0; ) {
+            synchronized (buffer) {
+               // the buffer may be reused by another stream once this one is closed
+               if (closed) {
+                  break;
+               }
+               buffer.append(chunk, 0, n);
+            }
+            onAppend.run();
+         }
+         state = closed ? "closed" : "complete";
+      } catch (IOException e) {
+         state = closed ? "closed" : "failed: " + e.getMessage();
+      } finally {
+         onAppend.run();
+      }
+   }
+
+   /**
+    * @param since Duration such as <code>10m</code> or RFC 3339 timestamp; <code>null</code> adds nothing.
+    */
+   static void addSince(HttpUrl.Builder url, String since) {
+      if (since == null) {
+         return;
+      }
+      Matcher matcher = DURATION.matcher(since);
+      if (matcher.matches()) {
+         url.addQueryParameter("sinceSeconds", String.valueOf(seconds(matcher)));
+      } else {
+         url.addQueryParameter("sinceTime", since);
+      }
+   }
+
+   private static long seconds(Matcher duration) {
+      long value = Long.parseLong(duration.group(1));
+      switch (duration.group(2)) {
+         case "m":
+            return TimeUnit.MINUTES.toSeconds(value);
+         case "h":
+            return TimeUnit.HOURS.toSeconds(value);
+         case "d":
+            return TimeUnit.DAYS.toSeconds(value);
+         default:
+            return value;
+      }
+   }
+
+   @Override
+   public String state() {
+      return state;
+   }
+
+   @Override
+   public void close() {
+      closed = true;
+      Call call = this.call;
+      if (call != null) {
+         call.cancel();
+      }
+   }
+}
@@ -5,9 +5,11 @@ import java.lang.reflect.Field;
 import java.net.UnknownHostException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -23,6 +25,7 @@ import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.gui2.BasicWindow;
 import com.googlecode.lanterna.gui2.BorderLayout;
 import com.googlecode.lanterna.gui2.Button;
+import com.googlecode.lanterna.gui2.CheckBoxList;
 import com.googlecode.lanterna.gui2.Component;
 import com.googlecode.lanterna.gui2.Direction;
 import com.googlecode.lanterna.gui2.GridLayout;
@@ -38,7 +41,6 @@ import com.googlecode.lanterna.gui2.dialogs.ActionListDialogBuilder;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialog;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialogButton;
 import com.googlecode.lanterna.gui2.dialogs.WaitingDialog;
-import com.googlecode.lanterna.gui2.table.Table;
 import com.googlecode.lanterna.input.KeyStroke;
 import com.googlecode.lanterna.input.KeyType;
 import com.googlecode.lanterna.screen.TerminalScreen;
@@ -49,36 +51,65 @@ import io.fabric8.kubernetes.api.model.Config;
 import io.fabric8.kubernetes.api.model.NamedAuthInfo;
 import io.fabric8.kubernetes.api.model.NamedCluster;
 import io.fabric8.kubernetes.api.model.NamedClusterBuilder;
-import io.fabric8.kubernetes.api.model.Namespace;
 import io.fabric8.kubernetes.client.KubernetesClientException;
 import io.fabric8.kubernetes.client.internal.KubeConfigUtils;
 import io.fabric8.kubernetes.client.internal.SerializationUtils;
 import io.fabric8.openshift.client.DefaultOpenShiftClient;
+import io.fabric8.openshift.client.OpenShiftClient;
 import io.fabric8.openshift.client.internal.OpenShiftOAuthInterceptor;
 
 public class Main {
    private static final HashSet<Window.Hint> MODAL_CENTERED = new HashSet<>(Arrays.asList(Window.Hint.MODAL, Window.Hint.CENTERED));
+   private static final String REFRESH_KEY = "refresh";
+   private static final String PREFETCH_KEY = "prefetch";
 
    final Ocpp ocpp;
    final TerminalScreen screen;
    final Window mainWindow = new BasicWindow("oc++");
-   final Table<String> table;
+   final ResourceTable table;
+   final Label status = new Label("");
+   private final FrameMailbox<Snapshot> frames;
+   private final Prefetcher prefetcher;
+   private final RowFilter filter = new RowFilter();
+   // last rendered snapshot, filtered again as the query changes
+   private Snapshot shown;
 
    public static void main(String[] args) throws IOException {
       new Main().run();
    }
 
    Main() throws IOException {
+      this(createScreen(), null);
+   }
+
+   Main(TerminalScreen screen, OpenShiftClient oc) throws IOException {
+      this.screen = screen;
+      ocpp = new Ocpp(new MultiWindowTextGUI(screen), oc, this::onResourcesSwitch, this::requestRefresh);
+      table = new ResourceTable(ocpp.columns());
+      prefetcher = new Prefetcher(ocpp);
+      frames = new FrameMailbox<>(ocpp.gui.getGUIThread(), ocpp.scheduler, FrameMailbox.MAX_FPS, this::render);
+   }
+
+   private static TerminalScreen createScreen() throws IOException {
       DefaultTerminalFactory factory = new DefaultTerminalFactory();
       if (Boolean.getBoolean("forceTerminal")) {
          factory.setForceTextTerminal(true);
       }
-      screen = factory.createScreen();
-      ocpp = new Ocpp(new MultiWindowTextGUI(screen), new DefaultOpenShiftClient(), this::onResourcesSwitch);
-      table = new Table<>(ocpp.resources().getColumns());
+      return factory.createScreen();
    }
 
    public void run() throws IOException {
+      start();
+      ocpp.gui.waitForWindowToClose(mainWindow);
+      stop();
+      GuiUtil.resetTerminal();
+      System.exit(0);
+   }
+
+   /**
+    * Opens the main window and starts refreshing; the caller has to run the GUI thread.
+    */
+   void start() throws IOException {
       screen.startScreen();
       mainWindow.setHints(Arrays.asList(Window.Hint.FULL_SCREEN, Window.Hint.NO_DECORATIONS));
       ocpp.gui.addWindow(mainWindow);
@@ -89,6 +120,7 @@ public class Main {
       resourcePanel.addComponent(new Button("pods", () -> ocpp.switchResources(Pods.INSTANCE)));
       resourcePanel.addComponent(new Button("svcs", () -> ocpp.switchResources(Services.INSTANCE)));
       resourcePanel.addComponent(new Button("deployments", () -> ocpp.switchResources(Deployments.INSTANCE)));
+      resourcePanel.addComponent(new Button("workloads", () -> ocpp.switchResources(Workloads.INSTANCE)));
       resourcePanel.addComponent(new Button("configmaps", () -> ocpp.switchResources(ConfigMaps.INSTANCE)));
       resourcePanel.addComponent(new Button("nodes", () -> ocpp.switchResources(Nodes.INSTANCE)));
 
@@ -98,8 +130,10 @@ public class Main {
       Panel actionsPanel = new Panel(new LinearLayout(Direction.HORIZONTAL));
       mainPanel.addComponent(actionsPanel, BorderLayout.Location.BOTTOM);
       actionsPanel.addComponent(new Button("namespaces", this::invokeSwitchNamespace));
+      actionsPanel.addComponent(new Button("clusters", this::switchCluster));
       actionsPanel.addComponent(new Button("delete all", () -> ocpp.resources().deleteAll(ocpp)));
       actionsPanel.addComponent(new Button("quit", mainWindow::close));
+      actionsPanel.addComponent(status);
 
       mainWindow.addWindowListener(new WindowListenerAdapter() {
          @Override
@@ -107,11 +141,47 @@ public class Main {
             table.setVisibleRows(newSize.getRows() - 3);
          }
 
+         @Override
+         public void onInput(Window basePane, KeyStroke keyStroke, AtomicBoolean deliverEvent) {
+            if (!filter.isEditing() || keyStroke.isCtrlDown() || keyStroke.isAltDown()) {
+               return;
+            }
+            switch (keyStroke.getKeyType()) {
+               case Character:
+                  filter.type(keyStroke.getCharacter());
+                  break;
+               case Backspace:
+                  filter.backspace();
+                  break;
+               case Tab:
+                  filter.nextMode();
+                  break;
+               case Enter:
+                  filter.apply();
+                  break;
+               case Escape:
+                  filter.clear();
+                  break;
+               default:
+                  // arrows move in the filtered table
+                  return;
+            }
+            deliverEvent.set(false);
+            refilter();
+         }
+
          @Override
          public void onUnhandledInput(Window basePane, KeyStroke keyStroke, AtomicBoolean hasBeenHandled) {
             try {
                if (keyStroke.getCharacter() == null) {
                   switch (keyStroke.getKeyType()) {
+                     case Escape:
+                        if (!filter.isActive()) {
+                           return;
+                        }
+                        filter.clear();
+                        refilter();
+                        break;
                      case Delete:
                         if (keyStroke.isShiftDown()) {
                            ocpp.resources().deleteAll(ocpp);
@@ -129,9 +199,21 @@ public class Main {
                   case 'q':
                      mainWindow.close();
                      break;
+                  case '/':
+                     filter.edit();
+                     Snapshot snapshot = shown;
+                     if (snapshot != null) {
+                        // typing would wait for the index otherwise
+                        ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> filter.index(snapshot.rows, snapshot.view.resources.cheapCells()));
+                     }
+                     refilter();
+                     break;
                   case 'n':
                      invokeSwitchNamespace();
                      break;
+                  case 'k':
+                     switchCluster();
+                     break;
                   case 'y':
                      ocpp.resources().showYaml(ocpp, getCurrentRow());
                      break;
@@ -147,6 +229,9 @@ public class Main {
                   case 'd':
                      ocpp.switchResources(Deployments.INSTANCE);
                      break;
+                  case 'w':
+                     ocpp.switchResources(Workloads.INSTANCE);
+                     break;
                   case 'c':
                      ocpp.switchResources(ConfigMaps.INSTANCE);
                      break;
@@ -163,14 +248,18 @@ public class Main {
       if (ocpp.oc.getConfiguration().getNamespace() == null) {
          ocpp.oc.getConfiguration().setNamespace("default");
       }
-      ocpp.executor.scheduleWithFixedDelay(this::fetchAndUpdate, 0, 1, TimeUnit.SECONDS);
-
-      ocpp.gui.waitForWindowToClose(mainWindow);
-      ocpp.executor.shutdown();
+      ocpp.cluster().namespaces.used(ocpp.ns());
+      ocpp.scheduler.scheduleLatest(Scheduler.Lane.REFRESH, REFRESH_KEY, ocpp::view, this::fetchAndUpdate, 0, 1, TimeUnit.SECONDS);
+      ocpp.scheduler.scheduleLatest(Scheduler.Lane.PREFETCH, PREFETCH_KEY, this::prefetchVersion, prefetcher::run, 1000, Prefetcher.INTERVAL, TimeUnit.MILLISECONDS);
+      // informers of the clusters that are not displayed keep watching until they expire, too
+      ocpp.scheduler.scheduleWithFixedDelay(Scheduler.Lane.REFRESH, () -> ocpp.clusters.attached().forEach(cluster -> cluster.informers.expireIdle()),
+            Informers.IDLE_TIMEOUT, Informers.IDLE_TIMEOUT, TimeUnit.MILLISECONDS);
+   }
 
+   void stop() throws IOException {
+      ocpp.scheduler.shutdown();
+      ocpp.clusters.attached().forEach(cluster -> cluster.informers.closeAll());
       screen.stopScreen();
-      GuiUtil.resetTerminal();
-      System.exit(0);
    }
 
    private void selectOperation() {
@@ -195,10 +284,10 @@ public class Main {
 
    private List<String> getCurrentRow() {
       int selectedRow = table.getSelectedRow();
-      if (selectedRow < 0 || selectedRow >= table.getTableModel().getRowCount()) {
+      if (selectedRow < 0 || selectedRow >= table.model().getRowCount()) {
          return null;
       }
-      List<String> row = table.getTableModel().getRow(selectedRow);
+      List<String> row = table.model().getRow(selectedRow);
       if (row.isEmpty()) {
          return null;
       }
@@ -206,15 +295,21 @@ public class Main {
    }
 
    private void onResourcesSwitch() {
-      table.getTableModel().clear();
-      for (int i = table.getTableModel().getColumnCount() - 1; i >= 0; --i) {
-         table.getTableModel().removeColumn(i);
-      }
-      for (String column : ocpp.resources().getColumns()) {
-         table.getTableModel().addColumn(column, new String[0]);
+      filter.clear();
+      table.setColumns(ocpp.columns());
+      requestRefresh();
+   }
+
+   private void requestRefresh() {
+      if (!ocpp.scheduler.isShutdown()) {
+         // refresh of previous kind or namespace is abandoned
+         ocpp.scheduler.submitLatest(Scheduler.Lane.REFRESH, REFRESH_KEY, ocpp.view(), this::fetchAndUpdate);
       }
-      table.setSelectedRow(0);
-      ocpp.executor.submit(this::fetchAndUpdate);
+   }
+
+   private Object prefetchVersion() {
+      // the prefetched views follow the namespaces of the displayed one
+      return ocpp.cluster() + "/" + ocpp.ns() + "@" + ocpp.scope();
    }
 
    private void fetchAndUpdate() {
@@ -222,39 +317,85 @@ public class Main {
          return;
       }
       try {
-         Resources resources = ocpp.resources();
-         List<String[]> rows = resources.fetchRows(ocpp);
-         ocpp.gui.getGUIThread().invokeLater(() -> {
-            if (ocpp.resources() != resources) {
-               // Do not update the table when the resources have switched
-               return;
+         Ocpp.View view = ocpp.view();
+         List<Row> rows = ocpp.fetchRows(view.resources);
+         String loading = ocpp.informers.describeLoading();
+         if (rows.isEmpty() && !loading.isEmpty()) {
+            // show what we had last time until the server responds
+            SnapshotCache.Cached cached = ocpp.snapshots.load(ocpp, view.resources, view.scopeKey());
+            if (cached != null) {
+               rows = cached.rows;
+               loading = "Stale, cached " + Util.formatSeconds((System.currentTimeMillis() - cached.savedAt) / 1000) + " ago. " + loading;
             }
-            Panel mainPanel = (Panel) mainWindow.getComponent();
-            if (rows.size() == 0) {
-               if (mainPanel.removeComponent(table)) {
-                  Label label = new Label("No " + resources.getResourceType(null) + " in namespace " + ocpp.ns());
-                  mainPanel.addComponent(label, BorderLayout.Location.CENTER);
-               }
+         } else if (loading.isEmpty()) {
+            ocpp.snapshots.saveLater(ocpp, view.resources, view.scopeKey(), rows);
+         }
+         if (filter.isActive()) {
+            // keeps the keystrokes in GUI thread from formatting and indexing the rows
+            filter.index(rows, view.resources.cheapCells());
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            // superseded by refresh of another view
+            return;
+         }
+         frames.post(new Snapshot(view, rows, loading));
+      } catch (Exception e) {
+         if (Util.isInterruption(e)) {
+            // superseded by refresh of another view while waiting for the server
+            return;
+         } else if (e instanceof KubernetesClientException) {
+            KubernetesClientException kce = (KubernetesClientException) e;
+            if (kce.getCause() instanceof SSLException) {
+               askForInsecureConnection();
             } else {
-               Component label = mainPanel.getChildren().stream().filter(Label.class::isInstance).findFirst().orElse(null);
-               if (label != null) {
-                  mainPanel.removeComponent(label);
-                  mainPanel.addComponent(table, BorderLayout.Location.CENTER);
-               }
+               login(kce);
             }
-            table.getTableModel().clear();
-            for (String[] row : rows) {
-               table.getTableModel().addRow(row);
-            }
-         });
-      } catch (KubernetesClientException kce) {
-         if (kce.getCause() instanceof SSLException) {
-            askForInsecureConnection();
          } else {
-            login(kce);
+            GuiUtil.showException(ocpp, e);
          }
-      } catch (Exception e) {
-         GuiUtil.showException(ocpp, e);
+      }
+   }
+
+   private void render(Snapshot snapshot) {
+      if (!snapshot.view.equals(ocpp.view())) {
+         // Do not update the table when the resources or namespace have switched
+         return;
+      }
+      shown = snapshot;
+      List<Row> rows = filter.filter(snapshot.rows, snapshot.view.resources.cheapCells());
+      String statusText = snapshot.loading;
+      if (filter.isActive()) {
+         statusText = filter + " " + rows.size() + "/" + snapshot.rows.size() + " " + statusText;
+      }
+      status.setText(ocpp.clusters.attached().size() > 1 ? "[" + ocpp.cluster() + "] " + statusText : statusText);
+      Panel mainPanel = (Panel) mainWindow.getComponent();
+      Component label = mainPanel.getChildren().stream().filter(Label.class::isInstance).findFirst().orElse(null);
+      if (rows.size() == 0) {
+         String text;
+         if (!snapshot.loading.isEmpty()) {
+            text = snapshot.loading;
+         } else if (snapshot.rows.isEmpty()) {
+            text = "No " + snapshot.view.resources.getResourceType(null) + " in " + snapshot.view.describeScope();
+         } else {
+            text = "No " + snapshot.view.resources.getResourceType(null) + " match " + filter;
+         }
+         if (mainPanel.removeComponent(table)) {
+            mainPanel.addComponent(new Label(text), BorderLayout.Location.CENTER);
+         } else if (label != null) {
+            ((Label) label).setText(text);
+         }
+      } else {
+         if (label != null) {
+            mainPanel.removeComponent(label);
+            mainPanel.addComponent(table, BorderLayout.Location.CENTER);
+         }
+      }
+      table.setRows(rows);
+   }
+
+   private void refilter() {
+      if (shown != null) {
+         render(shown);
       }
    }
 
@@ -319,17 +460,20 @@ public class Main {
 
    private void retryLogin(CompletableFuture<Void> loggedInFuture) {
       WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Logging in...");
-      ocpp.executor.submit(() -> {
-         DefaultOpenShiftClient newClient = new DefaultOpenShiftClient(ocpp.oc.getConfiguration());
-         ocpp.oc = newClient;
+      Cluster cluster = ocpp.cluster();
+      ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> {
+         DefaultOpenShiftClient newClient = ocpp.clusters.createClient(ocpp.oc.getConfiguration());
+         ocpp.setClient(newClient);
+         // watches opened by the previous client would not receive any events
+         ocpp.informers.closeAll();
          waitingDialog.close();
          loggedInFuture.complete(null);
-         fetchAndUpdate();
-         persistToken(newClient);
+         requestRefresh();
+         persistToken(cluster, newClient);
       });
    }
 
-   private void persistToken(DefaultOpenShiftClient newClient) {
+   private void persistToken(Cluster cluster, DefaultOpenShiftClient newClient) {
       newClient.getHttpClient().interceptors().stream()
             .filter(OpenShiftOAuthInterceptor.class::isInstance)
             .findFirst().ifPresent(interceptor -> {
@@ -345,8 +489,9 @@ public class Main {
          } catch (NoSuchFieldException | IllegalAccessException e) {
             return;
          }
-         updateKubeconfig(config -> {
-            String context = config.getCurrentContext();
+         ocpp.scheduler.submit(Scheduler.Lane.IO, () -> updateKubeconfig(config -> {
+            // the cluster need not be the current context
+            String context = Clusters.DEFAULT_CONTEXT.equals(cluster.context) ? config.getCurrentContext() : cluster.context;
             if (context == null) {
                String masterUrl = newClient.getConfiguration().getMasterUrl();
                int hostStart = masterUrl.indexOf("://") + 3;
@@ -369,22 +514,25 @@ public class Main {
                context = "default/" + clusterName + "/" + newClient.getConfiguration().getUsername();
                config.setCurrentContext(context);
             }
+            String contextName = context;
             String[] contextParts = context.split("/");
-            String configUsername = (contextParts.length < 3 ? "" : contextParts[2]) + "/" + (contextParts.length < 2 ? "" : contextParts[1]);
+            String configUsername = config.getContexts().stream()
+                  .filter(c -> contextName.equals(c.getName()) && c.getContext() != null && c.getContext().getUser() != null)
+                  .map(c -> c.getContext().getUser()).findFirst()
+                  .orElse((contextParts.length < 3 ? "" : contextParts[2]) + "/" + (contextParts.length < 2 ? "" : contextParts[1]));
             Optional<NamedAuthInfo> nai = config.getUsers().stream().filter(u -> configUsername.equals(u.getName())).findFirst();
             if (nai.isPresent()) {
                nai.get().getUser().setToken(token);
             } else {
                config.getUsers().add(new NamedAuthInfo(configUsername, new AuthInfoBuilder().withToken(token).build()));
             }
-         });
+         }));
       });
    }
 
    private void updateKubeconfig(Consumer<Config> configUpdater) {
       try {
-         String KUBECONFIG = System.getenv("KUBECONFIG");
-         Path kubeconfig = KUBECONFIG != null ? Paths.get(KUBECONFIG) : Paths.get(System.getenv("HOME"), ".kube", "config");
+         Path kubeconfig = Clusters.kubeconfig();
          Config config;
          if (kubeconfig.toFile().exists()) {
             config = KubeConfigUtils.parseConfig(kubeconfig.toFile());
@@ -405,37 +553,149 @@ public class Main {
    }
 
    private void invokeSwitchNamespace() {
-      WaitingDialog dialog = WaitingDialog.showDialog(ocpp.gui, "Loading...", "Please wait for the list of namespaces");
-      ocpp.executor.submit(() -> switchNamespace(dialog));
-   }
-
-   private void switchNamespace(WaitingDialog waitingDialog) {
-      ActionListDialogBuilder builder = new ActionListDialogBuilder().setTitle("Select namespace...");
+      Cluster cluster = ocpp.cluster();
+      Map<String, Runnable> extraActions = new LinkedHashMap<>();
+      extraActions.put("<all namespaces>", () -> {
+         table.setSelectedRow(0);
+         ocpp.switchScope(NamespaceScope.ALL);
+      });
+      extraActions.put("<several namespaces...>", () -> selectNamespaces(new ArrayList<>(cluster.namespaces.list(ocpp))));
+      FuzzyPicker picker = new FuzzyPicker("Select namespace...", new TerminalSize(40, 20), extraActions, this::switchNamespace);
+      ocpp.gui.addWindow(picker);
+      // the list is watched, usually we have it already
+      Collection<String> names;
       try {
-         for (Namespace ns : ocpp.oc.namespaces().list().getItems()) {
-            String name = ns.getMetadata().getName();
-            builder.addAction(name, () -> {
-               ocpp.oc.getConfiguration().setNamespace(name);
-               table.setSelectedRow(0);
-               ocpp.executor.submit(() -> updateKubeconfig(config -> {
-                  String[] ctx = config.getCurrentContext().split("/");
-                  config.setCurrentContext(name + "/" + ctx[1] + "/" + ctx[2]);
-               }));
+         names = cluster.namespaces.list(ocpp);
+      } catch (KubernetesClientException kce) {
+         picker.close();
+         ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> handleListFailure(kce));
+         return;
+      }
+      if (!names.isEmpty()) {
+         picker.setNames(cluster.namespaces.byRecent(names));
+         return;
+      }
+      picker.setMessage("Loading namespaces...");
+      cluster.namespaces.whenListed(ocpp).whenComplete((loaded, throwable) -> {
+         if (throwable == null) {
+            List<String> ordered = cluster.namespaces.byRecent(loaded);
+            ocpp.gui.getGUIThread().invokeLater(() -> {
+               picker.setNames(ordered);
+               if (ordered.isEmpty()) {
+                  picker.setMessage("No namespaces visible");
+               }
             });
+            return;
          }
-      } catch (KubernetesClientException kce) {
-         waitingDialog.close();
-         if (kce.getCause() instanceof SSLException) {
-            askForInsecureConnection();
+         ocpp.gui.getGUIThread().invokeLater(picker::close);
+         if (throwable instanceof KubernetesClientException) {
+            // the dialogs block, don't hold the informer loader
+            ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> handleListFailure((KubernetesClientException) throwable));
          } else {
-            login(kce).thenRun(this::invokeSwitchNamespace);
+            GuiUtil.showException(ocpp, throwable);
          }
-         return;
+      });
+   }
+
+   private void handleListFailure(KubernetesClientException kce) {
+      if (kce.getCause() instanceof SSLException) {
+         askForInsecureConnection();
+      } else {
+         login(kce).thenRun(this::invokeSwitchNamespace);
+      }
+   }
+
+   private void switchNamespace(String name) {
+      Cluster cluster = ocpp.cluster();
+      cluster.namespaces.used(name);
+      ocpp.switchNamespace(name);
+      table.setSelectedRow(0);
+      requestRefresh();
+      ocpp.scheduler.submitLatest(Scheduler.Lane.PREFETCH, PREFETCH_KEY, prefetchVersion(), prefetcher::run);
+      ocpp.scheduler.submit(Scheduler.Lane.IO, () -> updateKubeconfig(config -> {
+         if (!cluster.context.equals(config.getCurrentContext())) {
+            // the namespace is stored only for the current context
+            return;
+         }
+         String[] ctx = config.getCurrentContext().split("/");
+         config.setCurrentContext(name + "/" + ctx[1] + "/" + ctx[2]);
+      }));
+   }
+
+   private void switchCluster() {
+      // parsing kubeconfig can take a while
+      ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> {
+         List<String> contexts;
+         try {
+            contexts = Clusters.contexts();
+         } catch (IOException e) {
+            GuiUtil.showException(ocpp, e);
+            return;
+         }
+         ocpp.gui.getGUIThread().invokeLater(() -> selectCluster(contexts));
+      });
+   }
+
+   private void selectCluster(List<String> contexts) {
+      ActionListDialogBuilder builder = new ActionListDialogBuilder().setTitle("Select cluster...");
+      for (String context : contexts) {
+         boolean attached = ocpp.clusters.attached().stream().anyMatch(cluster -> cluster.context.equals(context));
+         builder.addAction((attached ? "* " : "  ") + context, () -> {
+            WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Connecting to " + context + "...");
+            ocpp.scheduler.submit(Scheduler.Lane.INTERACTIVE, () -> {
+               try {
+                  Cluster cluster = ocpp.clusters.attach(context);
+                  ocpp.gui.getGUIThread().invokeLater(() -> {
+                     table.setSelectedRow(0);
+                     ocpp.switchCluster(cluster);
+                  });
+               } catch (RuntimeException e) {
+                  GuiUtil.showException(ocpp, e);
+               } finally {
+                  waitingDialog.close();
+               }
+            });
+         });
       }
-      waitingDialog.close();
       ActionListDialog dialog = builder.setExtraWindowHints(new HashSet<>(Arrays.asList(Window.Hint.FIT_TERMINAL_WINDOW, Window.Hint.MODAL))).build();
       dialog.setCloseWindowWithEscape(true);
       dialog.addWindowListener(new SearchActionsByKey(dialog));
-      dialog.showDialog(ocpp.gui);
+      ocpp.gui.addWindow(dialog);
+   }
+
+   private void selectNamespaces(List<String> names) {
+      BasicWindow window = new BasicWindow("Select namespaces");
+      window.setHints(MODAL_CENTERED);
+      window.setCloseWindowWithEscape(true);
+      Panel panel = new Panel(new LinearLayout(Direction.VERTICAL));
+      window.setComponent(panel);
+      NamespaceScope current = ocpp.scope();
+      CheckBoxList<String> list = new CheckBoxList<>();
+      for (String name : names) {
+         list.addItem(name, current == null ? name.equals(ocpp.ns()) : !current.isAll() && current.contains(name));
+      }
+      panel.addComponent(list);
+      panel.addComponent(new Button("Show", () -> {
+         window.close();
+         List<String> checked = list.getCheckedItems();
+         if (!checked.isEmpty()) {
+            table.setSelectedRow(0);
+            ocpp.switchScope(NamespaceScope.of(checked));
+         }
+      }));
+      ocpp.gui.addWindow(window);
+      list.takeFocus();
+   }
+
+   private static class Snapshot {
+      final Ocpp.View view;
+      final List<Row> rows;
+      final String loading;
+
+      Snapshot(Ocpp.View view, List<Row> rows, String loading) {
+         this.view = view;
+         this.rows = rows;
+         this.loading = loading;
+      }
    }
 }
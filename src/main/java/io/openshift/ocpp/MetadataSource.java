@@ -0,0 +1,154 @@
+package io.openshift.ocpp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.api.model.KubernetesResourceList;
+import io.fabric8.kubernetes.api.model.ListMeta;
+import io.fabric8.kubernetes.api.model.ObjectMeta;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.Watch;
+import io.fabric8.kubernetes.client.Watcher;
+import io.fabric8.kubernetes.client.internal.SerializationUtils;
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+
+/**
+ * Lists and watches only the metadata of resources (<code>meta.k8s.io/v1 PartialObjectMetadata</code>),
+ * so that payload like ConfigMap data is never transferred. The resources handed out have only
+ * metadata set. Servers that don't support this return full objects and we drop everything but metadata.
+ */
+public class MetadataSource<T extends HasMetadata> implements Informer.Source<T> {
+   private static final String ACCEPT_LIST = "application/json;as=PartialObjectMetadataList;v=v1;g=meta.k8s.io,application/json";
+   private static final String ACCEPT_WATCH = "application/json;as=PartialObjectMetadata;v=v1;g=meta.k8s.io,application/json";
+
+   private final OpenShiftClient oc;
+   private final String path;
+   private final Supplier<T> factory;
+
+   /**
+    * @param path API path relative to master URL, e.g. <code>api/v1/namespaces/foo/configmaps</code>.
+    * @param factory Creates empty resource that will get the metadata set.
+    */
+   public MetadataSource(OpenShiftClient oc, String path, Supplier<T> factory) {
+      this.oc = oc;
+      this.path = path;
+      this.factory = factory;
+   }
+
+   @Override
+   public KubernetesResourceList<T> list(Integer limit, String continueToken) {
+      HttpUrl.Builder url = HttpUrl.get(oc.getMasterUrl() + path).newBuilder();
+      if (limit != null) {
+         url.addQueryParameter("limit", String.valueOf(limit));
+      }
+      if (continueToken != null) {
+         url.addQueryParameter("continue", continueToken);
+      }
+      Request request = new Request.Builder().url(url.build()).header("Accept", ACCEPT_LIST).get().build();
+      try (Response response = Util.httpClient(oc).newCall(request).execute()) {
+         ResponseBody body = response.body();
+         if (!response.isSuccessful()) {
+            throw new KubernetesClientException("Failure executing GET " + request.url() + ": " + response.code() + " " + response.message(), response.code(), null);
+         }
+         ObjectMapper mapper = SerializationUtils.getMapper();
+         JsonNode list = mapper.readTree(body.byteStream());
+         List<T> items = new ArrayList<>();
+         for (JsonNode item : list.path("items")) {
+            items.add(toResource(mapper, item));
+         }
+         return new MetadataList<>(mapper.treeToValue(list.path("metadata"), ListMeta.class), items);
+      } catch (IOException e) {
+         throw new KubernetesClientException("Failure executing GET " + request.url(), e);
+      }
+   }
+
+   @Override
+   public Watch watch(String resourceVersion, Watcher<T> watcher) {
+      HttpUrl url = HttpUrl.get(oc.getMasterUrl() + path).newBuilder()
+            .addQueryParameter("watch", "true")
+            .addQueryParameter("resourceVersion", resourceVersion)
+            .build();
+      Request request = new Request.Builder().url(url).header("Accept", ACCEPT_WATCH).get().build();
+      // the events come whenever they come, don't time out between them
+      OkHttpClient client = Util.httpClient(oc).newBuilder().readTimeout(0, TimeUnit.MILLISECONDS).build();
+      Call call = client.newCall(request);
+      // a blocking read in an async callback would hold a slot of the shared dispatcher for the watch lifetime
+      Thread thread = new Thread(() -> readEvents(call, url, watcher), "watch-" + path);
+      thread.setDaemon(true);
+      thread.start();
+      return call::cancel;
+   }
+
+   private void readEvents(Call call, HttpUrl url, Watcher<T> watcher) {
+      try (Response response = call.execute()) {
+         if (!response.isSuccessful()) {
+            watcher.onClose(new KubernetesClientException("Failure executing watch " + url + ": " + response.code() + " " + response.message(), response.code(), null));
+            return;
+         }
+         ObjectMapper mapper = SerializationUtils.getMapper();
+         BufferedSource source = response.body().source();
+         String line;
+         while ((line = source.readUtf8Line()) != null) {
+            if (line.isEmpty()) {
+               continue;
+            }
+            JsonNode event = mapper.readTree(line);
+            Watcher.Action action = Watcher.Action.valueOf(event.path("type").asText());
+            if (action == Watcher.Action.ERROR) {
+               JsonNode status = event.path("object");
+               watcher.onClose(new KubernetesClientException(status.path("message").asText(), status.path("code").asInt(), null));
+               return;
+            }
+            watcher.eventReceived(action, toResource(mapper, event.path("object")));
+         }
+         // the server closes watches after a timeout; the informer will list again
+         watcher.onClose(new KubernetesClientException("Watch " + url + " closed by server"));
+      } catch (IOException | IllegalArgumentException e) {
+         if (!call.isCanceled()) {
+            watcher.onClose(new KubernetesClientException("Watch " + url + " failed", e));
+         }
+      }
+   }
+
+   private T toResource(ObjectMapper mapper, JsonNode item) throws IOException {
+      T resource = factory.get();
+      resource.setMetadata(mapper.treeToValue(item.path("metadata"), ObjectMeta.class));
+      return resource;
+   }
+
+   private static class MetadataList<T extends HasMetadata> implements KubernetesResourceList<T> {
+      private static final long serialVersionUID = 1L;
+
+      private final ListMeta metadata;
+      private final List<T> items;
+
+      MetadataList(ListMeta metadata, List<T> items) {
+         this.metadata = metadata;
+         this.items = items;
+      }
+
+      @Override
+      public ListMeta getMetadata() {
+         return metadata;
+      }
+
+      @Override
+      public List<T> getItems() {
+         return items;
+      }
+   }
+}
@@ -0,0 +1,64 @@
+package io.openshift.ocpp;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Namespaces displayed at once: either all of them or a set chosen by the user.
+ */
+public final class NamespaceScope {
+   public static final NamespaceScope ALL = new NamespaceScope(null);
+
+   // null means all namespaces
+   private final SortedSet<String> names;
+
+   private NamespaceScope(SortedSet<String> names) {
+      this.names = names;
+   }
+
+   public static NamespaceScope of(Collection<String> names) {
+      return new NamespaceScope(Collections.unmodifiableSortedSet(new TreeSet<>(names)));
+   }
+
+   public boolean isAll() {
+      return names == null;
+   }
+
+   /**
+    * @return Sorted names of the namespaces; empty for {@link #ALL}.
+    */
+   public SortedSet<String> names() {
+      return names == null ? Collections.emptySortedSet() : names;
+   }
+
+   public boolean contains(String namespace) {
+      return names == null || names.contains(namespace);
+   }
+
+   public String describe() {
+      return names == null ? "all namespaces" : "namespaces " + String.join(", ", names);
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) {
+         return true;
+      } else if (!(o instanceof NamespaceScope)) {
+         return false;
+      }
+      NamespaceScope scope = (NamespaceScope) o;
+      return names == null ? scope.names == null : names.equals(scope.names);
+   }
+
+   @Override
+   public int hashCode() {
+      return names == null ? 0 : names.hashCode();
+   }
+
+   @Override
+   public String toString() {
+      return names == null ? "*" : String.join(",", names);
+   }
+}
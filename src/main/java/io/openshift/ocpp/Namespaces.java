@@ -0,0 +1,196 @@
+package io.openshift.ocpp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+import io.fabric8.kubernetes.client.KubernetesClientException;
+
+/**
+ * Rows of a view over several namespaces, with NAMESPACE as the last column. Where RBAC allows it
+ * the resources come from a single cluster-wide informer and are filtered to the chosen namespaces;
+ * otherwise each namespace has its own informer, listed by the bounded informer loader pool.
+ * With server-side tables at most <code>-Docpp.namespaces.parallelism</code> namespaces are requested at once.
+ */
+public class Namespaces {
+   static final int PARALLELISM = Math.max(1, Integer.getInteger("ocpp.namespaces.parallelism", 8));
+   private static final int MAX_RECENT = 10;
+
+   // not the informer loader, composite views wait for their requests there
+   private final ThreadPoolExecutor fanOut;
+   // kinds we can't list cluster-wide
+   private final Set<String> forbidden = ConcurrentHashMap.newKeySet();
+   private volatile boolean namespacesForbidden;
+   // most recently used first
+   private final LinkedList<String> recent = new LinkedList<>();
+
+   public Namespaces() {
+      AtomicInteger counter = new AtomicInteger();
+      fanOut = new ThreadPoolExecutor(PARALLELISM, PARALLELISM, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+         Thread thread = new Thread(r, "namespace-fan-out-" + counter.incrementAndGet());
+         thread.setDaemon(true);
+         return thread;
+      });
+      fanOut.allowCoreThreadTimeOut(true);
+   }
+
+   public List<Row> fetchRows(Ocpp ocpp, Resources resources, NamespaceScope scope) {
+      if (!resources.namespaced()) {
+         return resources.fetchRows(ocpp, null);
+      } else if (scope == null) {
+         return resources.fetchRows(ocpp, ocpp.ns());
+      }
+      String kind = resources.getResourceType(null);
+      if (!ServerTable.ENABLED && !forbidden.contains(kind)) {
+         try {
+            List<Row> rows = new ArrayList<>();
+            for (Row row : resources.fetchRows(ocpp, null)) {
+               if (scope.contains(row.namespace)) {
+                  rows.add(row.withNamespace(row.namespace));
+               }
+            }
+            // stable sort keeps the rows sorted by name within namespace
+            rows.sort(Row.BY_NAMESPACE);
+            return rows;
+         } catch (KubernetesClientException e) {
+            if (e.getCode() != 403) {
+               throw e;
+            }
+            forbidden.add(kind);
+         }
+      }
+      return fanOut(ocpp, resources, scope.isAll() ? list(ocpp) : scope.names());
+   }
+
+   private List<Row> fanOut(Ocpp ocpp, Resources resources, Collection<String> namespaces) {
+      List<CompletableFuture<List<Row>>> perNamespace = new ArrayList<>(namespaces.size());
+      for (String ns : namespaces) {
+         if (ServerTable.ENABLED) {
+            // these requests block so run them in parallel
+            perNamespace.add(CompletableFuture.supplyAsync(() -> fetchNamespace(ocpp, resources, ns), fanOut));
+         } else {
+            // informers don't block here, the lists run in the loader
+            perNamespace.add(CompletableFuture.completedFuture(fetchNamespace(ocpp, resources, ns)));
+         }
+      }
+      List<Row> rows = new ArrayList<>();
+      try {
+         // the namespaces are sorted and rows within each namespace too
+         perNamespace.forEach(f -> rows.addAll(f.join()));
+      } catch (CompletionException e) {
+         if (e.getCause() instanceof KubernetesClientException) {
+            throw (KubernetesClientException) e.getCause();
+         }
+         throw e;
+      }
+      return rows;
+   }
+
+   private static List<Row> fetchNamespace(Ocpp ocpp, Resources resources, String ns) {
+      try {
+         return resources.fetchRows(ocpp, ns).stream().map(row -> row.withNamespace(ns)).collect(Collectors.toList());
+      } catch (KubernetesClientException e) {
+         if (e.getCode() == 403) {
+            // the user can see only some namespaces
+            return new ArrayList<>();
+         }
+         throw e;
+      }
+   }
+
+   public synchronized void used(String namespace) {
+      recent.remove(namespace);
+      recent.addFirst(namespace);
+      if (recent.size() > MAX_RECENT) {
+         recent.removeLast();
+      }
+   }
+
+   /**
+    * @return The names with recently used namespaces first.
+    */
+   public List<String> byRecent(Collection<String> names) {
+      List<String> ordered = new ArrayList<>(names.size());
+      Set<String> listed;
+      synchronized (this) {
+         recent.stream().filter(names::contains).forEach(ordered::add);
+         listed = new HashSet<>(ordered);
+      }
+      names.stream().filter(name -> !listed.contains(name)).forEach(ordered::add);
+      return ordered;
+   }
+
+   /**
+    * Like {@link #list(Ocpp)} but completes once the names are loaded rather than returning what we have.
+    */
+   public CompletableFuture<Collection<String>> whenListed(Ocpp ocpp) {
+      Informers informers = ocpp.informers;
+      CompletableFuture<Collection<String>> names = new CompletableFuture<>();
+      if (namespacesForbidden) {
+         complete(names, informers.get("projects", null, oc -> oc.projects()).whenSynced());
+         return names;
+      }
+      informers.get("namespaces", null, oc -> oc.namespaces()).whenSynced().whenComplete((items, throwable) -> {
+         Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+         if (cause instanceof KubernetesClientException && ((KubernetesClientException) cause).getCode() == 403) {
+            // regular users on OpenShift can list only projects
+            namespacesForbidden = true;
+            complete(names, informers.get("projects", null, oc -> oc.projects()).whenSynced());
+         } else if (cause != null) {
+            names.completeExceptionally(cause);
+         } else {
+            names.complete(toNames(items));
+         }
+      });
+      return names;
+   }
+
+   private static void complete(CompletableFuture<Collection<String>> names, CompletableFuture<? extends Collection<? extends HasMetadata>> items) {
+      items.whenComplete((list, throwable) -> {
+         if (throwable != null) {
+            names.completeExceptionally(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+         } else {
+            names.complete(toNames(list));
+         }
+      });
+   }
+
+   private static Collection<String> toNames(Collection<? extends HasMetadata> items) {
+      return items.stream().map(item -> item.getMetadata().getName()).collect(Collectors.toCollection(TreeSet::new));
+   }
+
+   /**
+    * @return Sorted names of all namespaces (or projects) the user can see; these are watched in background.
+    */
+   public Collection<String> list(Ocpp ocpp) {
+      Collection<? extends HasMetadata> items;
+      if (!namespacesForbidden) {
+         try {
+            items = ocpp.informers.get("namespaces", null, oc -> oc.namespaces()).items();
+         } catch (KubernetesClientException e) {
+            if (e.getCode() != 403) {
+               throw e;
+            }
+            // regular users on OpenShift can list only projects
+            namespacesForbidden = true;
+            items = ocpp.informers.get("projects", null, oc -> oc.projects()).items();
+         }
+      } else {
+         items = ocpp.informers.get("projects", null, oc -> oc.projects()).items();
+      }
+      return toNames(items);
+   }
+}
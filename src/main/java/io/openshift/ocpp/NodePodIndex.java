@@ -0,0 +1,82 @@
+package io.openshift.ocpp;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.model.Container;
+import io.fabric8.kubernetes.api.model.Pod;
+import io.fabric8.kubernetes.api.model.Quantity;
+
+/**
+ * Number of pods and sum of their resource requests per node, maintained from pod deltas.
+ */
+public class NodePodIndex implements Informer.Listener<Pod> {
+   static final Aggregate EMPTY = new Aggregate();
+
+   private final Map<String, Aggregate> byNode = new HashMap<>();
+
+   public synchronized Aggregate get(String node) {
+      Aggregate aggregate = byNode.get(node);
+      return aggregate == null ? EMPTY : aggregate.copy();
+   }
+
+   @Override
+   public synchronized void onAdd(Pod pod) {
+      apply(pod, 1);
+   }
+
+   @Override
+   public synchronized void onUpdate(Pod oldPod, Pod newPod) {
+      apply(oldPod, -1);
+      apply(newPod, 1);
+   }
+
+   @Override
+   public synchronized void onDelete(Pod pod) {
+      apply(pod, -1);
+   }
+
+   private void apply(Pod pod, int sign) {
+      String node = pod.getSpec().getNodeName();
+      if (node == null) {
+         return;
+      }
+      Aggregate aggregate = byNode.computeIfAbsent(node, n -> new Aggregate());
+      aggregate.pods += sign;
+      for (Container container : pod.getSpec().getContainers()) {
+         if (container.getResources() == null || container.getResources().getRequests() == null) {
+            continue;
+         }
+         Quantity cpu = container.getResources().getRequests().get("cpu");
+         if (cpu != null) {
+            aggregate.cpuMillis += sign * Util.millicores(cpu);
+         }
+         Quantity memory = container.getResources().getRequests().get("memory");
+         if (memory != null) {
+            aggregate.memoryBytes += sign * Util.bytes(memory);
+         }
+      }
+      if (aggregate.pods == 0) {
+         byNode.remove(node);
+      }
+   }
+
+   public static class Aggregate {
+      int pods;
+      long cpuMillis;
+      long memoryBytes;
+
+      Aggregate copy() {
+         Aggregate copy = new Aggregate();
+         copy.pods = pods;
+         copy.cpuMillis = cpuMillis;
+         copy.memoryBytes = memoryBytes;
+         return copy;
+      }
+
+      @Override
+      public String toString() {
+         return pods + "/" + cpuMillis + "/" + memoryBytes;
+      }
+   }
+}
@@ -2,23 +2,23 @@ package io.openshift.ocpp;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.stream.Collectors;
 
-import io.fabric8.kubernetes.api.model.Container;
 import io.fabric8.kubernetes.api.model.DoneableNode;
 import io.fabric8.kubernetes.api.model.Node;
 import io.fabric8.kubernetes.api.model.NodeAddress;
 import io.fabric8.kubernetes.api.model.NodeList;
 import io.fabric8.kubernetes.api.model.Pod;
-import io.fabric8.kubernetes.api.model.ResourceRequirements;
+import io.fabric8.kubernetes.api.model.Quantity;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.Resource;
 
 public class Nodes extends AbstractResources {
+   private static final String[] COLUMNS = new String[] { "NAME", "STATUS", "ROLES", "AGE", "INTERNAL-IP", "PODS", "CPU-REQS", "MEM-REQS" };
+   // after COLUMNS, which the instance uses
    public static final Nodes INSTANCE = new Nodes();
 
-   private static final String[] COLUMNS = new String[] { "NAME", "STATUS", "ROLES", "AGE", "INTERNAL-IP", "PODS", "CPU-REQS"};
+   private final RowCache<Node> rowCache = new RowCache<>(COLUMNS, n -> n.getMetadata().getCreationTimestamp());
 
    @Override
    public String[] getColumns() {
@@ -26,11 +26,26 @@ public class Nodes extends AbstractResources {
    }
 
    @Override
-   public List<String[]> fetchRows(Ocpp ocpp) {
-      Map<String, List<Pod>> allPods = ocpp.oc.pods().inAnyNamespace().list().getItems().stream()
-            .filter(pod -> pod.getSpec().getNodeName() != null)
-            .collect(Collectors.groupingBy(pod -> pod.getSpec().getNodeName()));
-      return ocpp.oc.nodes().list().getItems().stream().map(n -> new String[] {
+   public List<Row> fetchRows(Ocpp ocpp, String namespace) {
+      Informer<Pod> allPods = ocpp.informers.get("pods", null, oc -> oc.pods().inAnyNamespace());
+      NodePodIndex podIndex = allPods.listener(NodePodIndex.class, NodePodIndex::new);
+      allPods.sync();
+      // the row changes also when pods on the node change
+      return rowCache.rows(null, ocpp.informers.get("nodes", null, oc -> oc.nodes()).items(),
+            n -> n.getMetadata().getResourceVersion() + "/" + podIndex.get(n.getMetadata().getName()),
+            n -> toRow(n, podIndex.get(n.getMetadata().getName())))
+            .sorted(Row.BY_NAME).collect(Collectors.toList());
+   }
+
+   @Override
+   public int heldObjects(Ocpp ocpp, List<Row> rows) {
+      // pods of the whole cluster are watched for the aggregates
+      return rows.size() + ocpp.informers.size("pods", null);
+   }
+
+   String[] toRow(Node n, NodePodIndex.Aggregate pods) {
+      Map<String, Quantity> capacity = n.getStatus().getCapacity();
+      return new String[] {
             n.getMetadata().getName(),
             n.getStatus().getConditions().stream()
                   .filter(nc -> "Ready".equals(nc.getType()))
@@ -38,18 +53,19 @@ public class Nodes extends AbstractResources {
             n.getMetadata().getLabels().keySet().stream()
                   .filter(l -> l.startsWith("node-role.kubernetes.io"))
                   .map(l -> l.substring(l.indexOf('/') + 1)).findFirst().orElse(""),
-            Util.getAge(n.getMetadata().getCreationTimestamp()),
+            null, // AGE is rendered by Row
             n.getStatus().getAddresses().stream()
                   .filter(a -> "InternalIP".equals(a.getType()))
                   .map(NodeAddress::getAddress).findAny().orElse(""),
-            (allPods.containsKey(n.getMetadata().getName()) ? allPods.get(n.getMetadata().getName()).size() : 0) + "/" + n.getStatus().getCapacity().get("pods").getAmount(),
-            (allPods.containsKey(n.getMetadata().getName()) ? allPods.get(n.getMetadata().getName()).stream()
-                  .flatMap(pod -> pod.getSpec().getContainers().stream())
-                  .map(Container::getResources).filter(Objects::nonNull)
-                  .map(ResourceRequirements::getRequests).filter(Objects::nonNull)
-                  .map(reqs -> reqs.get("cpu")).filter(Objects::nonNull)
-                  .mapToInt(Util::millicores).sum() : 0) + "m/" + n.getStatus().getCapacity().get("cpu").getAmount()
-      }).collect(Collectors.toList());
+            pods.pods + "/" + capacity.get("pods").getAmount(),
+            pods.cpuMillis + "m/" + capacity.get("cpu").getAmount(),
+            Util.formatBytes(pods.memoryBytes) + "/" + Util.formatBytes(Util.bytes(capacity.get("memory")))
+      };
+   }
+
+   @Override
+   String informerKind(List<String> row) {
+      return "nodes";
    }
 
    @Override
@@ -57,19 +73,22 @@ public class Nodes extends AbstractResources {
       return "nodes";
    }
 
+   @Override
+   public boolean namespaced() {
+      return false;
+   }
+
    @Override
    public Map<String, Operation> getOperations(List<String> unused) {
       return commonOps()
             .add("ssh", (ocpp, row) -> {
-               GuiUtil.ssh(ocpp, getHostname(ocpp, row), "stty", "echo", "&&", "bash", "-i");
+               withResource(ocpp, row, Node.class, node -> GuiUtil.ssh(ocpp, getHostname(node), "stty", "echo", "&&", "bash", "-i"));
             }).add("top", (ocpp, row) -> {
-               GuiUtil.ssh(ocpp, getHostname(ocpp, row), "top");
+               withResource(ocpp, row, Node.class, node -> GuiUtil.ssh(ocpp, getHostname(node), "top"));
             }).build();
    }
 
-   private String getHostname(Ocpp ocpp, List<String> row) {
-      String name = row.get(0);
-      Node node = ocpp.oc.nodes().withName(name).get();
+   private String getHostname(Node node) {
       String hostname = node.getStatus().getAddresses().stream()
             .filter(a -> "Hostname".equals(a.getType()))
             .map(NodeAddress::getAddress).findAny().orElse(null);
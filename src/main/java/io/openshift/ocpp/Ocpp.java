@@ -3,8 +3,9 @@ package io.openshift.ocpp;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
 
 import com.googlecode.lanterna.gui2.WindowBasedTextGUI;
 
@@ -12,30 +13,179 @@ import io.fabric8.openshift.client.OpenShiftClient;
 
 public class Ocpp {
    static final String OC_BINARY = System.getProperty("ocpp.oc", "oc");
-   final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+   final Scheduler scheduler = new Scheduler();
+   final SnapshotCache snapshots = new SnapshotCache();
    final WindowBasedTextGUI gui;
+   final Clusters clusters;
    final Path deletions;
-   OpenShiftClient oc;
+   // client and informers of the displayed cluster
+   volatile OpenShiftClient oc;
+   volatile Informers informers;
+   private volatile Cluster cluster;
    private Resources resources = Pods.INSTANCE;
+   // null when displaying only the current namespace
+   private volatile NamespaceScope scope;
+   // incremented on each switch of resources or namespace
+   private volatile long generation;
    private final Runnable resourceSwitchCallback;
 
-   public Ocpp(WindowBasedTextGUI gui, OpenShiftClient oc, Runnable resourceSwitchCallback) throws IOException {
+   /**
+    * @param oc Client for the current kubeconfig context, or <code>null</code> to create one.
+    */
+   public Ocpp(WindowBasedTextGUI gui, OpenShiftClient oc, Runnable resourceSwitchCallback, Runnable refreshCallback) throws IOException {
       this.gui = gui;
-      this.oc = oc;
       this.resourceSwitchCallback = resourceSwitchCallback;
+      this.clusters = new Clusters(refreshCallback);
+      String context = Clusters.currentContext();
+      this.cluster = oc == null ? clusters.attach(context) : clusters.add(context, oc);
+      this.oc = cluster.oc;
+      this.informers = cluster.informers;
       this.deletions = Files.createTempDirectory("ocpp-deletions");
    }
 
+   public Cluster cluster() {
+      return cluster;
+   }
+
+   /**
+    * Displays another cluster; the informers of the previous one keep running until they expire.
+    */
+   public void switchCluster(Cluster cluster) {
+      this.cluster = cluster;
+      this.oc = cluster.oc;
+      this.informers = cluster.informers;
+      scope = null;
+      ++generation;
+      resourceSwitchCallback.run();
+   }
+
+   /**
+    * Replaces client of the displayed cluster, e.g. after login.
+    */
+   public void setClient(OpenShiftClient oc) {
+      cluster.oc = oc;
+      this.oc = oc;
+   }
+
    public String ns() {
       return oc.getConfiguration().getNamespace();
    }
 
+   /**
+    * @return Namespace of the resource in given row, which is the last cell in multi-namespace views.
+    */
+   public String ns(List<String> row) {
+      NamespaceScope scope = this.scope;
+      if (scope == null || row == null || !resources.namespaced()) {
+         return ns();
+      }
+      return row.get(row.size() - 1);
+   }
+
+   /**
+    * @return Namespaces displayed in addition to the current one, or <code>null</code>.
+    */
+   public NamespaceScope scope() {
+      return scope;
+   }
+
    public Resources resources() {
       return resources;
    }
 
    public void switchResources(Resources resources) {
       this.resources = resources;
+      ++generation;
+      resourceSwitchCallback.run();
+   }
+
+   public void switchNamespace(String namespace) {
+      oc.getConfiguration().setNamespace(namespace);
+      scope = null;
+      ++generation;
+   }
+
+   /**
+    * Displays resources from several namespaces; the current namespace does not change.
+    */
+   public void switchScope(NamespaceScope scope) {
+      this.scope = scope;
+      ++generation;
+      // the NAMESPACE column is added or removed
       resourceSwitchCallback.run();
    }
+
+   /**
+    * @return Columns of the current view.
+    */
+   public String[] columns() {
+      String[] columns = resources.getColumns();
+      if (scope == null || !resources.namespaced()) {
+         return columns;
+      }
+      String[] withNamespace = Arrays.copyOf(columns, columns.length + 1);
+      withNamespace[columns.length] = "NAMESPACE";
+      return withNamespace;
+   }
+
+   /**
+    * @return Rows of given view in the current namespace or scope.
+    */
+   public List<Row> fetchRows(Resources resources) {
+      return cluster.namespaces.fetchRows(this, resources, scope);
+   }
+
+   /**
+    * @return What is currently displayed; data fetched for a different view must not be rendered.
+    */
+   public View view() {
+      return new View(resources, ns(), scope, generation);
+   }
+
+   public static final class View {
+      final Resources resources;
+      final String namespace;
+      final NamespaceScope scope;
+      final long generation;
+
+      View(Resources resources, String namespace, NamespaceScope scope, long generation) {
+         this.resources = resources;
+         this.namespace = namespace;
+         this.scope = scope;
+         this.generation = generation;
+      }
+
+      /**
+       * @return Identifies the namespaces of the view, e.g. in the snapshot cache.
+       */
+      String scopeKey() {
+         return scope == null || !resources.namespaced() ? namespace : scope.toString();
+      }
+
+      String describeScope() {
+         return scope == null || !resources.namespaced() ? "namespace " + namespace : scope.describe();
+      }
+
+      @Override
+      public boolean equals(Object o) {
+         if (this == o) {
+            return true;
+         } else if (!(o instanceof View)) {
+            return false;
+         }
+         View view = (View) o;
+         return resources == view.resources && Objects.equals(namespace, view.namespace) && Objects.equals(scope, view.scope)
+               && generation == view.generation;
+      }
+
+      @Override
+      public int hashCode() {
+         return Objects.hash(resources, namespace, scope, generation);
+      }
+
+      @Override
+      public String toString() {
+         return resources.getResourceType(null) + "@" + scopeKey() + "#" + generation;
+      }
+   }
 }
@@ -1,14 +1,17 @@
 package io.openshift.ocpp;
 
 import java.io.IOException;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.googlecode.lanterna.gui2.dialogs.ListSelectDialog;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialog;
 import com.googlecode.lanterna.gui2.dialogs.MessageDialogButton;
+import com.googlecode.lanterna.gui2.dialogs.TextInputDialog;
+import com.googlecode.lanterna.gui2.dialogs.WaitingDialog;
 
 import io.fabric8.kubernetes.api.model.ContainerStatus;
 import io.fabric8.kubernetes.api.model.DoneablePod;
@@ -18,11 +21,14 @@ import io.fabric8.kubernetes.api.model.PodList;
 import io.fabric8.kubernetes.api.model.PodStatus;
 import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.PodResource;
+import io.fabric8.openshift.client.OpenShiftClient;
 
 public class Pods extends AbstractResources {
+   private static final String[] COLUMNS = new String[] { "NAME", "READY", "STATUS", "RESTARTS", "AGE", "IP", "NODE" };
+   // after COLUMNS, which the instance uses
    public static final Pods INSTANCE = new Pods();
 
-   private static final String[] COLUMNS = new String[] { "NAME", "READY", "STATUS", "RESTARTS", "AGE", "IP", "NODE" };
+   private final RowCache<Pod> rowCache = new RowCache<>(COLUMNS, pod -> pod.getStatus().getStartTime());
 
    @Override
    public String[] getColumns() {
@@ -30,16 +36,23 @@ public class Pods extends AbstractResources {
    }
 
    @Override
-   public List<String[]> fetchRows(Ocpp ocpp) {
-      return ocpp.oc.pods().inNamespace(ocpp.ns()).list().getItems().stream().map(pod -> new String[] {
+   public List<Row> fetchRows(Ocpp ocpp, String ns) {
+      if (ServerTable.ENABLED) {
+         return ServerTable.fetch(ocpp, "api/v1/namespaces/" + ns + "/pods", COLUMNS);
+      }
+      return rowCache.rows(ns, ocpp.informers.get("pods", ns, oc -> ns == null ? oc.pods().inAnyNamespace() : oc.pods().inNamespace(ns)).items(), this::toRow).sorted(Row.BY_NAME).collect(Collectors.toList());
+   }
+
+   String[] toRow(Pod pod) {
+      return new String[] {
             pod.getMetadata().getName(),
             pod.getStatus().getContainerStatuses().stream().filter(ContainerStatus::getReady).count() + "/" + pod.getStatus().getContainerStatuses().size(),
             describeStatus(pod.getStatus()),
             String.valueOf(pod.getStatus().getContainerStatuses().stream().mapToInt(ContainerStatus::getRestartCount).sum()),
-            Util.getAge(pod.getStatus().getStartTime()),
+            null, // AGE is rendered by Row
             pod.getStatus().getPodIP(),
             pod.getSpec().getNodeName()
-      }).sorted(Comparator.comparing(a -> a[0])).collect(Collectors.toList());
+      };
    }
 
    private String describeStatus(PodStatus status) {
@@ -79,6 +92,11 @@ public class Pods extends AbstractResources {
       return "Unknown";
    }
 
+   @Override
+   String informerKind(List<String> row) {
+      return "pods";
+   }
+
    @Override
    public String getResourceType(List<String> row) {
       return "pods";
@@ -88,23 +106,23 @@ public class Pods extends AbstractResources {
    public Map<String, Operation> getOperations(List<String> row) {
       // intentionally omitting EDIT
       return Resources.ops().add("describe", DESCRIBE).add("yaml", SHOW_YAML).add("delete", DELETE)
-            .add("logs", Pods::logs).add("rsh", Pods::rsh).add("top", Pods::top).build();
+            .add("logs", Pods::logs).add("logs of selector", Pods::logsOfSelector).add("download logs", Pods::downloadLogs).add("rsh", Pods::rsh).add("top", Pods::top).build();
    }
 
    private static void top(Ocpp ocpp, List<String> row) {
-      Pod pod = ocpp.oc.pods().inNamespace(ocpp.ns()).withName(row.get(0)).get();
-      GuiUtil.ssh(ocpp, pod.getSpec().getNodeName(), "top");
+      INSTANCE.withResource(ocpp, row, Pod.class, pod -> GuiUtil.ssh(ocpp, pod.getSpec().getNodeName(), "top"));
    }
 
    private static void rsh(Ocpp ocpp, List<String> row) {
-      String name = row.get(0);
-      String container = selectContainer(ocpp, name);
-      if (container == null) {
-         return;
-      }
+      String ns = ocpp.ns(row);
+      Cluster cluster = ocpp.cluster();
+      selectContainer(ocpp, row, container -> rsh(ocpp, cluster, ns, row.get(0), container));
+   }
+
+   private static void rsh(Ocpp ocpp, Cluster cluster, String ns, String name, String container) {
       GuiUtil.resetTerminal();
       try {
-         Process ssh = new ProcessBuilder(Ocpp.OC_BINARY, "rsh", "-n", ocpp.ns(), "-c", container, name).inheritIO().start();
+         Process ssh = new ProcessBuilder(cluster.ocCommand("rsh", "-n", ns, "-c", container, name)).inheritIO().start();
          if (ssh.waitFor() != 0) {
             GuiUtil.refreshScreen(ocpp);
             MessageDialog.showMessageDialog(ocpp.gui, "RSH failed", "Failed to rsh to " + name + "/" + container, MessageDialogButton.OK);
@@ -117,28 +135,82 @@ public class Pods extends AbstractResources {
 
    private static void logs(Ocpp ocpp, List<String> row) {
       String name = row.get(0);
-      String container = selectContainer(ocpp, name);
-      if (container != null) {
-         GuiUtil.runAndView(ocpp, new String[]{ Ocpp.OC_BINARY, "logs", "-n", ocpp.ns(), "-c", container, name }, "logs-" + name, ".log");
-      }
+      String ns = ocpp.ns(row);
+      selectContainer(ocpp, row, container -> {
+         OpenShiftClient oc = ocpp.oc;
+         new LogPane(ocpp, ns + "/" + name + "/" + container,
+               (options, buffer, onAppend) -> new LogStream(oc, ns, name, container, options, buffer, onAppend).start(), false).show();
+      });
    }
 
-   private static String selectContainer(Ocpp ocpp, String resourceName) {
-      Pod pod = ocpp.oc.pods().inNamespace(ocpp.ns()).withName(resourceName).get();
-      int numContainers = pod.getStatus().getContainerStatuses().size();
-      String container;
-      if (numContainers > 1) {
-         container = ListSelectDialog.showDialog(ocpp.gui, "Select container", "Select container:",
-               pod.getStatus().getContainerStatuses().stream().map(ContainerStatus::getName).toArray(String[]::new));
-      } else {
-         container = pod.getStatus().getContainerStatuses().stream().map(ContainerStatus::getName).findFirst().get();
+   private static void downloadLogs(Ocpp ocpp, List<String> row) {
+      String ns = ocpp.ns(row);
+      selectContainer(ocpp, row, container -> downloadLogs(ocpp, ns, row.get(0), container));
+   }
+
+   private static void downloadLogs(Ocpp ocpp, String ns, String name, String container) {
+      OpenShiftClient oc = ocpp.oc;
+      WaitingDialog waitingDialog = WaitingDialog.showDialog(ocpp.gui, "Please wait", "Downloading...");
+      ocpp.scheduler.submit(Scheduler.Lane.BULK, () -> {
+         try {
+            LogFile file = LogFile.download(oc, ns, name, container);
+            ocpp.gui.getGUIThread().invokeLater(() -> new LogPane(ocpp, ns + "/" + name + "/" + container + " (downloaded)", file).show());
+         } catch (IOException e) {
+            GuiUtil.showException(ocpp, e);
+         } finally {
+            waitingDialog.close();
+         }
+      });
+   }
+
+   private static void logsOfSelector(Ocpp ocpp, List<String> row) {
+      String ns = ocpp.ns(row);
+      INSTANCE.withResource(ocpp, row, Pod.class, pod -> logsOfSelector(ocpp, ns, row.get(0), pod.getMetadata().getLabels()));
+   }
+
+   private static void logsOfSelector(Ocpp ocpp, String ns, String name, Map<String, String> labels) {
+      String initial = labels == null ? "" : labels.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(","));
+      String input = TextInputDialog.showDialog(ocpp.gui, "Logs of selector", "Labels of the pods (key=value,...):", initial);
+      if (input == null) {
+         return;
       }
-      return container;
+      Map<String, String> selector = new LinkedHashMap<>();
+      for (String label : input.split(",")) {
+         if (label.trim().isEmpty()) {
+            continue;
+         }
+         int eq = label.indexOf('=');
+         if (eq <= 0) {
+            MessageDialog.showMessageDialog(ocpp.gui, "Logs of selector", "Expected key=value: " + label.trim(), MessageDialogButton.OK);
+            return;
+         }
+         selector.put(label.substring(0, eq).trim(), label.substring(eq + 1).trim());
+      }
+      LogPane.showMerged(ocpp, ns, name, selector);
+   }
+
+   /**
+    * Runs the action with the container picked by the user, or the only one; called in GUI thread.
+    */
+   private static void selectContainer(Ocpp ocpp, List<String> row, Consumer<String> action) {
+      INSTANCE.withResource(ocpp, row, Pod.class, pod -> {
+         int numContainers = pod.getStatus().getContainerStatuses().size();
+         String container;
+         if (numContainers > 1) {
+            container = ListSelectDialog.showDialog(ocpp.gui, "Select container", "Select container:",
+                  pod.getStatus().getContainerStatuses().stream().map(ContainerStatus::getName).toArray(String[]::new));
+         } else {
+            container = pod.getStatus().getContainerStatuses().stream().map(ContainerStatus::getName).findFirst().orElse(null);
+         }
+         if (container != null) {
+            action.accept(container);
+         }
+      });
    }
 
 
    @Override
    public NonNamespaceOperation<Pod, PodList, DoneablePod, PodResource<Pod, DoneablePod>> getResources(Ocpp ocpp, List<String> row) {
-      return ocpp.oc.pods().inNamespace(ocpp.ns());
+      return ocpp.oc.pods().inNamespace(ocpp.ns(row));
    }
 }
@@ -0,0 +1,70 @@
+package io.openshift.ocpp;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps the views that are not displayed warm for the current namespace (or namespaces), so that switching to them
+ * renders from memory. Fetching the rows keeps their informers from expiring and fills the row caches.
+ * The namespace list is kept warm, too, for the namespace picker.
+ * <p>
+ * The views are selected by <code>-Docpp.prefetch=pods,services,...</code> (empty to disable); by default only
+ * a few cheap ones, as each keeps its watches open. A view that holds more than <code>-Docpp.prefetch.maxObjects</code>
+ * objects (including those it only aggregates, like pods of nodes) is not prefetched in that namespace anymore
+ * and its informers expire as usual.
+ */
+public class Prefetcher {
+   static final List<Resources> VIEWS = Arrays.asList(Pods.INSTANCE, Services.INSTANCE, Deployments.INSTANCE, Workloads.INSTANCE, ConfigMaps.INSTANCE, Nodes.INSTANCE);
+   static final Set<String> ENABLED = new HashSet<>(Arrays.asList(
+         System.getProperty("ocpp.prefetch", "pods,services,deployments").split(",")));
+   static final int MAX_OBJECTS = Integer.getInteger("ocpp.prefetch.maxObjects", 20_000);
+   // prefetch often enough that the informers don't expire in between
+   static final long INTERVAL = Informers.IDLE_TIMEOUT / 2;
+
+   private final Ocpp ocpp;
+   // cluster/namespace/kind of views that were too large
+   private final Set<String> oversized = new HashSet<>();
+
+   public Prefetcher(Ocpp ocpp) {
+      this.ocpp = ocpp;
+   }
+
+   public synchronized void run() {
+      try {
+         // keeps the namespace picker instant
+         ocpp.cluster().namespaces.list(ocpp);
+      } catch (RuntimeException e) {
+         // the picker lists again
+      }
+      if (ServerTable.ENABLED) {
+         // there's nothing to keep warm, each fetch goes to the server
+         return;
+      }
+      Resources current = ocpp.resources();
+      NamespaceScope scope = ocpp.scope();
+      for (Resources resources : VIEWS) {
+         String kind = resources.getResourceType(null);
+         // same as the key of the view once it's displayed
+         String ns = scope != null && resources.namespaced() ? scope.toString() : ocpp.ns();
+         String key = ocpp.cluster() + "/" + ns + "/" + kind;
+         if (resources == current || !ENABLED.contains(kind) || oversized.contains(key)) {
+            continue;
+         }
+         if (Thread.currentThread().isInterrupted()) {
+            return;
+         }
+         try {
+            List<Row> rows = ocpp.fetchRows(resources);
+            if (resources.heldObjects(ocpp, rows) > MAX_OBJECTS) {
+               oversized.add(key);
+            } else if (ocpp.informers.describeLoading().isEmpty()) {
+               ocpp.snapshots.saveLater(ocpp, resources, ns, rows);
+            }
+         } catch (RuntimeException e) {
+            // the informer lists again when the view is displayed
+         }
+      }
+   }
+}
@@ -11,14 +11,22 @@ import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
 
 public class ReplicaSets extends AbstractResources {
+   private static final String DEPLOYMENT_LABEL = "openshift.io/deployment-config.name";
    private static final String[] COLUMNS = { "NAME", "DESIRED", "CURRENT", "READY", "AGE" };
 
+   private final RowCache<ReplicaSet> rowCache = new RowCache<>(COLUMNS, rs -> rs.getMetadata().getCreationTimestamp());
+
    private final String deployment;
 
    public ReplicaSets(String deployment) {
       this.deployment = deployment;
    }
 
+   @Override
+   String informerKind(List<String> row) {
+      return "replicasets?" + DEPLOYMENT_LABEL + "=" + deployment;
+   }
+
    @Override
    public String getResourceType(List<String> row) {
       return "replicaset";
@@ -28,7 +36,7 @@ public class ReplicaSets extends AbstractResources {
    NonNamespaceOperation<ReplicaSet, ReplicaSetList, DoneableReplicaSet,
          RollableScalableResource<ReplicaSet, DoneableReplicaSet>> getResources(Ocpp ocpp, List<String> row) {
       return (NonNamespaceOperation<ReplicaSet, ReplicaSetList, DoneableReplicaSet, RollableScalableResource<ReplicaSet, DoneableReplicaSet>>)
-            ocpp.oc.apps().replicaSets().inNamespace(ocpp.ns()).withLabel("openshift.io/deployment-config.name", deployment);
+            ocpp.oc.apps().replicaSets().inNamespace(ocpp.ns(row)).withLabel(DEPLOYMENT_LABEL, deployment);
    }
 
    @Override
@@ -37,18 +45,30 @@ public class ReplicaSets extends AbstractResources {
    }
 
    @Override
-   public List<String[]> fetchRows(Ocpp ocpp) {
-      return getResources(ocpp, null).list().getItems().stream().map(rs -> new String[] {
-                  rs.getMetadata().getName(),
-                  String.valueOf(rs.getStatus().getReplicas()),
-                  String.valueOf(rs.getStatus().getAvailableReplicas()),
-                  String.valueOf(rs.getStatus().getReadyReplicas()),
-                  Util.getAge(rs.getMetadata().getCreationTimestamp())
-            }).collect(Collectors.toList());
+   public List<Row> fetchRows(Ocpp ocpp, String ns) {
+      if (ServerTable.ENABLED) {
+         return ServerTable.fetch(ocpp, "apis/apps/v1/namespaces/" + ns + "/replicasets?labelSelector=" + DEPLOYMENT_LABEL + "=" + deployment, COLUMNS);
+      }
+      return rowCache.rows(ns, ocpp.informers.get("replicasets?" + DEPLOYMENT_LABEL + "=" + deployment, ns,
+            oc -> ns == null ? oc.apps().replicaSets().inAnyNamespace().withLabel(DEPLOYMENT_LABEL, deployment)
+                  : oc.apps().replicaSets().inNamespace(ns).withLabel(DEPLOYMENT_LABEL, deployment)).items(), this::toRow).sorted(Row.BY_NAME).collect(Collectors.toList());
+   }
+
+   String[] toRow(ReplicaSet rs) {
+      return new String[] {
+            rs.getMetadata().getName(),
+            String.valueOf(rs.getStatus().getReplicas()),
+            String.valueOf(rs.getStatus().getAvailableReplicas()),
+            String.valueOf(rs.getStatus().getReadyReplicas()),
+            null // AGE is rendered by Row
+      };
    }
 
    @Override
    public Map<String, Operation> getOperations(List<String> row) {
-      return Resources.ops().add("describe", DESCRIBE).add("yaml", SHOW_YAML).add("delete", DELETE).build();
+      return Resources.ops().add("describe", DESCRIBE).add("yaml", SHOW_YAML).add("delete", DELETE)
+            .add("logs", (ocpp, row2) -> withResource(ocpp, row2, ReplicaSet.class, rs ->
+                  LogPane.showMerged(ocpp, ocpp.ns(row2), row2.get(0), rs.getSpec().getSelector().getMatchLabels())))
+            .build();
    }
 }
@@ -11,14 +11,22 @@ import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.RollableScalableResource;
 
 public class ReplicationControllers extends AbstractResources {
+   private static final String DEPLOYMENT_LABEL = "openshift.io/deployment-config.name";
    private static final String[] COLUMNS = { "NAME", "DESIRED", "CURRENT", "READY", "AGE" };
 
+   private final RowCache<ReplicationController> rowCache = new RowCache<>(COLUMNS, rc -> rc.getMetadata().getCreationTimestamp());
+
    private final String deployment;
 
    public ReplicationControllers(String deployment) {
       this.deployment = deployment;
    }
 
+   @Override
+   String informerKind(List<String> row) {
+      return "replicationcontrollers?" + DEPLOYMENT_LABEL + "=" + deployment;
+   }
+
    @Override
    public String getResourceType(List<String> row) {
       return "replicationcontroller";
@@ -28,7 +36,7 @@ public class ReplicationControllers extends AbstractResources {
    NonNamespaceOperation<ReplicationController, ReplicationControllerList, DoneableReplicationController,
          RollableScalableResource<ReplicationController, DoneableReplicationController>> getResources(Ocpp ocpp, List<String> row) {
       return (NonNamespaceOperation<ReplicationController, ReplicationControllerList, DoneableReplicationController, RollableScalableResource<ReplicationController, DoneableReplicationController>>)
-            ocpp.oc.replicationControllers().inNamespace(ocpp.ns()).withLabel("openshift.io/deployment-config.name", deployment);
+            ocpp.oc.replicationControllers().inNamespace(ocpp.ns(row)).withLabel(DEPLOYMENT_LABEL, deployment);
    }
 
    @Override
@@ -37,18 +45,30 @@ public class ReplicationControllers extends AbstractResources {
    }
 
    @Override
-   public List<String[]> fetchRows(Ocpp ocpp) {
-      return getResources(ocpp, null).list().getItems().stream().map(rc -> new String[] {
-                  rc.getMetadata().getName(),
-                  String.valueOf(rc.getStatus().getReplicas()),
-                  String.valueOf(rc.getStatus().getAvailableReplicas()),
-                  String.valueOf(rc.getStatus().getReadyReplicas()),
-                  Util.getAge(rc.getMetadata().getCreationTimestamp())
-            }).collect(Collectors.toList());
+   public List<Row> fetchRows(Ocpp ocpp, String ns) {
+      if (ServerTable.ENABLED) {
+         return ServerTable.fetch(ocpp, "api/v1/namespaces/" + ns + "/replicationcontrollers?labelSelector=" + DEPLOYMENT_LABEL + "=" + deployment, COLUMNS);
+      }
+      return rowCache.rows(ns, ocpp.informers.get("replicationcontrollers?" + DEPLOYMENT_LABEL + "=" + deployment, ns,
+            oc -> ns == null ? oc.replicationControllers().inAnyNamespace().withLabel(DEPLOYMENT_LABEL, deployment)
+                  : oc.replicationControllers().inNamespace(ns).withLabel(DEPLOYMENT_LABEL, deployment)).items(), this::toRow).sorted(Row.BY_NAME).collect(Collectors.toList());
+   }
+
+   String[] toRow(ReplicationController rc) {
+      return new String[] {
+            rc.getMetadata().getName(),
+            String.valueOf(rc.getStatus().getReplicas()),
+            String.valueOf(rc.getStatus().getAvailableReplicas()),
+            String.valueOf(rc.getStatus().getReadyReplicas()),
+            null // AGE is rendered by Row
+      };
    }
 
    @Override
    public Map<String, Operation> getOperations(List<String> row) {
-      return Resources.ops().add("describe", DESCRIBE).add("yaml", SHOW_YAML).add("delete", DELETE).build();
+      return Resources.ops().add("describe", DESCRIBE).add("yaml", SHOW_YAML).add("delete", DELETE)
+            .add("logs", (ocpp, row2) -> withResource(ocpp, row2, ReplicationController.class, rc ->
+                  LogPane.showMerged(ocpp, ocpp.ns(row2), row2.get(0), rc.getSpec().getSelector())))
+            .build();
    }
 }
@@ -0,0 +1,57 @@
+package io.openshift.ocpp;
+
+import java.util.List;
+
+import com.googlecode.lanterna.gui2.table.Table;
+import com.googlecode.lanterna.gui2.table.TableRenderer;
+
+public class ResourceTable extends Table<String> {
+   private final VirtualTableModel model;
+   private final VirtualTableRenderer renderer = new VirtualTableRenderer();
+
+   public ResourceTable(String... columnLabels) {
+      super(columnLabels);
+      model = new VirtualTableModel(columnLabels);
+      setTableModel(model);
+   }
+
+   @Override
+   protected TableRenderer<String> createDefaultRenderer() {
+      return renderer;
+   }
+
+   public VirtualTableModel model() {
+      return model;
+   }
+
+   public synchronized void setColumns(String[] columnLabels) {
+      model.clear();
+      for (int i = model.getColumnCount() - 1; i >= 0; --i) {
+         model.removeColumn(i);
+      }
+      for (String column : columnLabels) {
+         model.addColumn(column, new String[0]);
+      }
+      renderer.resetColumnWidths();
+      setSelectedRow(0);
+      invalidate();
+   }
+
+   /**
+    * Replaces the rows while keeping the selected resource on the same line of the screen.
+    */
+   public synchronized void setRows(List<Row> rows) {
+      int selectedRow = getSelectedRow();
+      Row selected = model.getResourceRow(selectedRow);
+      int selectedOffset = selectedRow - getViewTopRow();
+      model.setRows(rows);
+      int newSelectedRow = selected == null ? -1 : model.indexOf(selected.key);
+      if (newSelectedRow >= 0) {
+         setViewTopRow(Math.max(0, newSelectedRow - selectedOffset));
+         setSelectedRow(newSelectedRow);
+      } else if (selectedRow >= rows.size()) {
+         setSelectedRow(Math.max(0, rows.size() - 1));
+      }
+      invalidate();
+   }
+}
@@ -6,7 +6,32 @@ import java.util.Map;
 public interface Resources {
    String[] getColumns();
 
-   List<String[]> fetchRows(Ocpp ocpp);
+   /**
+    * @param namespace Namespace of the resources or <code>null</code> to list them in all namespaces.
+    */
+   List<Row> fetchRows(Ocpp ocpp, String namespace);
+
+   /**
+    * @return False for cluster-scoped resources, e.g. nodes.
+    */
+   default boolean namespaced() {
+      return true;
+   }
+
+   /**
+    * @return False when formatting a row fetches more data, e.g. config maps; the table filter then matches
+    *         only the name, namespace and labels of rows that have not been displayed.
+    */
+   default boolean cheapCells() {
+      return true;
+   }
+
+   /**
+    * @return Number of objects kept in memory to display the rows, e.g. including the pods aggregated into node rows.
+    */
+   default int heldObjects(Ocpp ocpp, List<Row> rows) {
+      return rows.size();
+   }
 
    Map<String, Operation> getOperations(List<String> row);
 
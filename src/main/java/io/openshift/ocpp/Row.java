@@ -0,0 +1,116 @@
+package io.openshift.ocpp;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+/**
+ * One resource in the table; the cells are formatted only when the row is displayed.
+ */
+public class Row {
+   public static final Comparator<Row> BY_NAME = Comparator.comparing(row -> row.name);
+   public static final Comparator<Row> BY_NAMESPACE = Comparator.comparing(row -> row.namespace, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+   final String key;
+   final String name;
+   // null when not known, e.g. rows from server-side tables
+   final String namespace;
+   final Map<String, String> labels;
+   private final int ageColumn;
+   private final Age age;
+   private Supplier<String[]> formatter;
+   private String[] cells;
+
+   public Row(String key, String name, Supplier<String[]> formatter) {
+      this(key, name, formatter, -1, Age.NONE);
+   }
+
+   /**
+    * @param ageColumn Index of the cell that is rendered from <code>age</code> rather than by the formatter, or -1.
+    */
+   public Row(String key, String name, Supplier<String[]> formatter, int ageColumn, Age age) {
+      this(key, name, null, formatter, ageColumn, age);
+   }
+
+   public Row(String key, String name, String namespace, Supplier<String[]> formatter, int ageColumn, Age age) {
+      this(key, name, namespace, Collections.emptyMap(), formatter, ageColumn, age);
+   }
+
+   /**
+    * @param labels Labels of the resource, matched by the table filter.
+    */
+   public Row(String key, String name, String namespace, Map<String, String> labels, Supplier<String[]> formatter, int ageColumn, Age age) {
+      this.key = key;
+      this.name = name;
+      this.namespace = namespace;
+      this.labels = labels == null ? Collections.emptyMap() : labels;
+      this.formatter = formatter;
+      this.ageColumn = ageColumn;
+      this.age = age;
+   }
+
+   public static <T extends HasMetadata> Row of(T resource, Function<T, String[]> formatter) {
+      return new Row(resource.getMetadata().getUid(), resource.getMetadata().getName(), () -> formatter.apply(resource));
+   }
+
+   /**
+    * @return Row for multi-namespace views, with NAMESPACE cell after the others.
+    */
+   public Row withNamespace(String namespace) {
+      // names are unique only within namespace
+      return new Row(namespace + "/" + key, name, namespace, labels, () -> {
+         String[] cells = formattedCells();
+         String[] withNamespace = new String[cells.length + 1];
+         System.arraycopy(cells, 0, withNamespace, 0, cells.length);
+         withNamespace[cells.length] = namespace;
+         return withNamespace;
+      }, ageColumn, age);
+   }
+
+   public String[] cells() {
+      String[] cells = formattedCells();
+      if (ageColumn >= 0 && ageColumn < cells.length) {
+         // the formatted cells may be shared with other rows
+         cells = cells.clone();
+         cells[ageColumn] = age.text();
+      }
+      return cells;
+   }
+
+   public String cell(int column) {
+      if (column == ageColumn) {
+         return age.text();
+      }
+      String[] cells = formattedCells();
+      return column < cells.length ? cells[column] : "";
+   }
+
+   /**
+    * @return Cells if the row has been displayed, <code>null</code> otherwise (formatting may be expensive).
+    */
+   synchronized String[] cellsIfFormatted() {
+      return cells;
+   }
+
+   int ageColumn() {
+      return ageColumn;
+   }
+
+   Age age() {
+      return age;
+   }
+
+   // rows are formatted in GUI thread but also when the snapshot is saved or indexed by the filter;
+   // the array is shared by rows of the same resource version and must not be modified
+   synchronized String[] formattedCells() {
+      if (cells == null) {
+         cells = formatter.get();
+         formatter = null;
+      }
+      return cells;
+   }
+}
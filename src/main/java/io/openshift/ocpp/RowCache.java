@@ -0,0 +1,87 @@
+package io.openshift.ocpp;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import io.fabric8.kubernetes.api.model.HasMetadata;
+
+/**
+ * Keeps formatted cells of each resource until its version changes, so that unchanged resources
+ * are not formatted again on every refresh. The timestamp for AGE column is parsed once per version
+ * and the column is rendered by the row. Multi-namespace views fetch each namespace separately,
+ * so the entries are kept per namespace and each fetch evicts only the entries of its namespace.
+ */
+public class RowCache<T extends HasMetadata> {
+   // namespace names cannot contain this
+   private static final String ALL_NAMESPACES = "*";
+
+   private final int ageColumn;
+   private final Function<T, String> timestamp;
+   // namespace -> uid -> entry
+   private final Map<String, Map<String, Entry>> entries = new ConcurrentHashMap<>();
+
+   /**
+    * @param columns Columns of the view; AGE is recognized by name.
+    * @param timestamp Provides the timestamp AGE is computed from.
+    */
+   public RowCache(String[] columns, Function<T, String> timestamp) {
+      this.ageColumn = Arrays.asList(columns).indexOf("AGE");
+      this.timestamp = timestamp;
+   }
+
+   /**
+    * @param namespace Namespace of the resources or <code>null</code> if these come from all namespaces.
+    */
+   public Stream<Row> rows(String namespace, Collection<T> resources, Function<T, String[]> formatter) {
+      return rows(namespace, resources, r -> r.getMetadata().getResourceVersion(), formatter);
+   }
+
+   /**
+    * @param version Cached cells are reused while this stays the same; by default this is the resource version.
+    */
+   public Stream<Row> rows(String namespace, Collection<T> resources, Function<T, String> version, Function<T, String[]> formatter) {
+      Map<String, Entry> namespaceEntries = entries.computeIfAbsent(namespace == null ? ALL_NAMESPACES : namespace, ns -> new ConcurrentHashMap<>());
+      if (namespaceEntries.size() > resources.size()) {
+         Set<String> uids = new HashSet<>();
+         resources.forEach(r -> uids.add(r.getMetadata().getUid()));
+         namespaceEntries.keySet().retainAll(uids);
+      }
+      return resources.stream().map(r -> row(namespaceEntries, r, version.apply(r), formatter));
+   }
+
+   private Row row(Map<String, Entry> namespaceEntries, T resource, String version, Function<T, String[]> formatter) {
+      String uid = resource.getMetadata().getUid();
+      Entry entry = namespaceEntries.get(uid);
+      if (entry == null || !entry.version.equals(version)) {
+         entry = new Entry(version, ageColumn < 0 ? Age.NONE : Age.of(timestamp.apply(resource)));
+         namespaceEntries.put(uid, entry);
+      }
+      Entry e = entry;
+      return new Row(uid, resource.getMetadata().getName(), resource.getMetadata().getNamespace(), resource.getMetadata().getLabels(), () -> e.cells(formatter, resource), ageColumn, entry.age);
+   }
+
+   private class Entry {
+      final String version;
+      final Age age;
+      volatile String[] cells;
+
+      Entry(String version, Age age) {
+         this.version = version;
+         this.age = age;
+      }
+
+      String[] cells(Function<T, String[]> formatter, T resource) {
+         String[] cells = this.cells;
+         if (cells == null) {
+            this.cells = cells = formatter.apply(resource);
+         }
+         return cells;
+      }
+   }
+}
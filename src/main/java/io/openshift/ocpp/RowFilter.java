@@ -0,0 +1,363 @@
+package io.openshift.ocpp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Filter of the main table (<code>/</code>), matching the name, labels and cells of each row by substring,
+ * fuzzy (subsequence within a cell) or regular expression.
+ * <p>
+ * Each row is indexed once per resource version: the index holds its lowercase text with a mask of
+ * the characters and a signature of the character pairs (bigrams) it contains. Rows whose bits don't cover
+ * those of the query are rejected without scanning the text. The index is updated by key when the table
+ * is refreshed, so only new or changed rows are indexed again; a query that extends the previous one
+ * is searched only among the previous matches. Matching rows keep the order of the table.
+ * <p>
+ * The query is edited in the GUI thread, the rows are indexed in the refresh thread.
+ */
+public class RowFilter {
+   public enum Mode {
+      SUBSTRING, FUZZY, REGEX
+   }
+
+   // separates the fields in indexed text; neither the query nor the bigrams contain it
+   private static final char SEPARATOR = '\n';
+   private static final int SIGNATURE_BITS = 256;
+
+   private Map<String, Entry> index = new HashMap<>();
+   private List<Row> indexedRows;
+   private Entry[] indexedEntries;
+
+   private String query = "";
+   private Mode mode = Mode.SUBSTRING;
+   private boolean editing;
+   private Pattern pattern;
+   // lowercase text every match of the pattern contains
+   private String literal = "";
+
+   // results of the last query, reused when the query is extended
+   private List<Row> lastRows;
+   private String lastQuery;
+   private Mode lastMode;
+   private int[] lastMatches;
+   private int lastCount;
+
+   public synchronized boolean isActive() {
+      return editing || !query.isEmpty();
+   }
+
+   public synchronized boolean isEditing() {
+      return editing;
+   }
+
+   /**
+    * Starts editing the query; keys typed from now on go to the filter.
+    */
+   public synchronized void edit() {
+      editing = true;
+   }
+
+   /**
+    * Stops editing, the table stays filtered.
+    */
+   public synchronized void apply() {
+      editing = false;
+   }
+
+   /**
+    * Stops editing and shows all rows.
+    */
+   public synchronized void clear() {
+      editing = false;
+      setQuery("");
+      // the next view would likely have other rows
+      index = new HashMap<>();
+      indexedRows = null;
+      indexedEntries = null;
+   }
+
+   public synchronized void type(char c) {
+      setQuery(query + c);
+   }
+
+   public synchronized void backspace() {
+      if (!query.isEmpty()) {
+         setQuery(query.substring(0, query.length() - 1));
+      }
+   }
+
+   public synchronized Mode mode() {
+      return mode;
+   }
+
+   public synchronized void nextMode() {
+      mode = Mode.values()[(mode.ordinal() + 1) % Mode.values().length];
+      setQuery(query);
+   }
+
+   private void setQuery(String query) {
+      this.query = query;
+      pattern = null;
+      literal = "";
+      if (mode == Mode.REGEX && !query.isEmpty()) {
+         try {
+            // ^ and $ anchor each field
+            pattern = Pattern.compile(query, Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+            literal = requiredLiteral(query).toLowerCase(Locale.ROOT);
+         } catch (PatternSyntaxException e) {
+            // shown in the status, nothing matches until the expression is fixed
+         }
+      }
+   }
+
+   /**
+    * @param formatCells See {@link #index(List, boolean)}.
+    * @return Rows matching the query, or all rows when the query is empty.
+    */
+   public synchronized List<Row> filter(List<Row> rows, boolean formatCells) {
+      if (query.isEmpty()) {
+         return rows;
+      }
+      if (mode == Mode.REGEX && pattern == null) {
+         return new ArrayList<>();
+      }
+      index(rows, formatCells);
+      String lowerCase = query.toLowerCase(Locale.ROOT);
+      int[] candidates = null;
+      int count = rows.size();
+      if (lastRows == rows && lastMode == mode && mode != Mode.REGEX && lowerCase.startsWith(lastQuery)) {
+         // anything matching the longer query matched the shorter one, too
+         candidates = lastMatches;
+         count = lastCount;
+      }
+      String required = mode == Mode.REGEX ? literal : lowerCase;
+      long chars = chars(required);
+      long[] bigrams = mode == Mode.FUZZY ? null : bigrams(required);
+      Matcher matcher = pattern == null ? null : pattern.matcher("");
+      int[] matches = new int[count];
+      int matched = 0;
+      for (int c = 0; c < count; ++c) {
+         int i = candidates == null ? c : candidates[c];
+         Entry entry = indexedEntries[i];
+         boolean match;
+         switch (mode) {
+            case SUBSTRING:
+               match = entry.covers(chars, bigrams) && entry.text.contains(lowerCase);
+               break;
+            case FUZZY:
+               match = entry.covers(chars, null) && entry.hasSubsequence(lowerCase);
+               break;
+            default:
+               match = entry.covers(chars, bigrams) && entry.text.contains(required) && matcher.reset(entry.text).find();
+         }
+         if (match) {
+            matches[matched++] = i;
+         }
+      }
+      lastRows = rows;
+      lastQuery = lowerCase;
+      lastMode = mode;
+      lastMatches = matches;
+      lastCount = matched;
+      List<Row> filtered = new ArrayList<>(matched);
+      for (int i = 0; i < matched; ++i) {
+         filtered.add(rows.get(matches[i]));
+      }
+      return filtered;
+   }
+
+   /**
+    * Brings the index up to date with the rows; only rows that are new or have changed are indexed.
+    * This formats the cells of all rows, so it should be called before the rows reach the GUI thread.
+    *
+    * @param formatCells False to index only the cells of rows that have been formatted already,
+    *                    see {@link Resources#cheapCells()}.
+    */
+   public synchronized void index(List<Row> rows, boolean formatCells) {
+      if (rows == indexedRows) {
+         return;
+      }
+      Map<String, Entry> previous = index;
+      Map<String, Entry> current = new HashMap<>(rows.size() * 4 / 3 + 1);
+      Entry[] entries = new Entry[rows.size()];
+      for (int i = 0; i < entries.length; ++i) {
+         Row row = rows.get(i);
+         String[] cells = formatCells ? row.formattedCells() : row.cellsIfFormatted();
+         Entry entry = previous.get(row.key);
+         if (entry == null || !entry.isFor(row, cells)) {
+            entry = new Entry(row, cells);
+         }
+         current.put(row.key, entry);
+         entries[i] = entry;
+      }
+      index = current;
+      indexedRows = rows;
+      indexedEntries = entries;
+   }
+
+   /**
+    * @return Longest run of plain characters outside of groups that is not made optional by a quantifier,
+    *         or empty string when there's an alternative that could avoid it.
+    */
+   static String requiredLiteral(String regex) {
+      if (regex.indexOf('|') >= 0) {
+         return "";
+      }
+      String longest = "";
+      StringBuilder run = new StringBuilder();
+      int depth = 0;
+      for (int i = 0; i < regex.length(); ++i) {
+         char c = regex.charAt(i);
+         if (depth == 0 && "\\[](){}.*+?^$".indexOf(c) < 0) {
+            run.append(c);
+            continue;
+         }
+         if ((c == '?' || c == '*' || c == '{') && run.length() > 0) {
+            // the last character may be absent
+            run.setLength(run.length() - 1);
+         }
+         if (run.length() > longest.length()) {
+            longest = run.toString();
+         }
+         run.setLength(0);
+         if (c == '\\') {
+            ++i;
+         } else if (c == '[') {
+            // skip the class; ']' right after the opening bracket (or negation) is a member
+            int start = i + 1 < regex.length() && regex.charAt(i + 1) == '^' ? i + 2 : i + 1;
+            int end = regex.indexOf(']', start + 1);
+            i = end < 0 ? regex.length() : end;
+         } else if (c == '{') {
+            int end = regex.indexOf('}', i);
+            i = end < 0 ? regex.length() : end;
+         } else if (c == '(') {
+            ++depth;
+         } else if (c == ')') {
+            depth = Math.max(0, depth - 1);
+         }
+      }
+      return run.length() > longest.length() ? run.toString() : longest;
+   }
+
+   private static long chars(String s) {
+      long mask = 0;
+      for (int i = 0; i < s.length(); ++i) {
+         mask |= 1L << (s.charAt(i) & 63);
+      }
+      return mask;
+   }
+
+   private static long[] bigrams(String s) {
+      long[] signature = new long[SIGNATURE_BITS / 64];
+      for (int i = 1; i < s.length(); ++i) {
+         char a = s.charAt(i - 1);
+         char b = s.charAt(i);
+         if (a != SEPARATOR && b != SEPARATOR) {
+            int bit = (a * 31 + b) & (SIGNATURE_BITS - 1);
+            signature[bit >> 6] |= 1L << (bit & 63);
+         }
+      }
+      return signature;
+   }
+
+   /**
+    * @return E.g. <code>/nginx (fuzzy)</code>
+    */
+   @Override
+   public synchronized String toString() {
+      StringBuilder sb = new StringBuilder("/").append(query);
+      if (editing) {
+         sb.append('_');
+      }
+      if (mode == Mode.REGEX && pattern == null && !query.isEmpty()) {
+         sb.append(" (invalid regex)");
+      } else if (mode != Mode.SUBSTRING) {
+         sb.append(" (").append(mode.name().toLowerCase(Locale.ROOT)).append(')');
+      }
+      return sb.toString();
+   }
+
+   private static class Entry {
+      final String[] cells;
+      final Map<String, String> labels;
+      final String name;
+      final String text;
+      final long chars;
+      final long[] bigrams;
+
+      Entry(Row row, String[] cells) {
+         this.cells = cells == null ? new String[0] : cells;
+         this.labels = row.labels;
+         this.name = row.name;
+         StringBuilder sb = new StringBuilder(row.name);
+         if (row.namespace != null) {
+            sb.append(SEPARATOR).append(row.namespace);
+         }
+         for (Map.Entry<String, String> label : row.labels.entrySet()) {
+            sb.append(SEPARATOR).append(label.getKey()).append('=').append(label.getValue());
+         }
+         for (int i = 0; i < this.cells.length; ++i) {
+            // age changes all the time and is not worth searching
+            if (i != row.ageColumn() && this.cells[i] != null) {
+               sb.append(SEPARATOR).append(this.cells[i]);
+            }
+         }
+         text = sb.toString().toLowerCase(Locale.ROOT);
+         chars = chars(text);
+         bigrams = bigrams(text);
+      }
+
+      boolean isFor(Row row, String[] cells) {
+         // unchanged resources share the cells array; rows of multi-namespace views copy it.
+         // Rows that are not formatted keep the cells they were indexed with, if any.
+         return Objects.equals(name, row.name) && (cells == null || this.cells == cells || Arrays.equals(this.cells, cells))
+               && (labels == row.labels || labels.equals(row.labels));
+      }
+
+      boolean covers(long chars, long[] bigrams) {
+         if ((this.chars & chars) != chars) {
+            return false;
+         }
+         if (bigrams != null) {
+            for (int i = 0; i < bigrams.length; ++i) {
+               if ((this.bigrams[i] & bigrams[i]) != bigrams[i]) {
+                  return false;
+               }
+            }
+         }
+         return true;
+      }
+
+      // the query has to match within one field
+      boolean hasSubsequence(String query) {
+         int start = 0;
+         while (start < text.length()) {
+            int end = text.indexOf(SEPARATOR, start);
+            if (end < 0) {
+               end = text.length();
+            }
+            int from = start;
+            int i = 0;
+            for (; i < query.length(); ++i) {
+               from = text.indexOf(query.charAt(i), from) + 1;
+               if (from == 0 || from > end) {
+                  break;
+               }
+            }
+            if (i == query.length()) {
+               return true;
+            }
+            start = end + 1;
+         }
+         return false;
+      }
+   }
+}
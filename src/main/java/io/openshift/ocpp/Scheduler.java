@@ -0,0 +1,176 @@
+package io.openshift.ocpp;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs background work in separate lanes so that e.g. a long download does not stall the table refresh.
+ * Each lane has its own threads; the number of threads is set by <code>-Docpp.lane.&lt;lane&gt;=N</code>.
+ */
+public class Scheduler {
+   public enum Lane {
+      /** Actions the user is waiting for: deleting a resource, listing namespaces, logging in. */
+      INTERACTIVE(2),
+      /** Periodic table refresh and informer housekeeping. */
+      REFRESH(1),
+      /** Keeping the views that are not displayed up-to-date. */
+      PREFETCH(1),
+      /** Long running operations: downloads, deleting all resources. */
+      BULK(2),
+      /** Writing local files, e.g. kubeconfig. */
+      IO(1);
+
+      final int defaultThreads;
+
+      Lane(int defaultThreads) {
+         this.defaultThreads = defaultThreads;
+      }
+
+      int threads() {
+         return Math.max(1, Integer.getInteger("ocpp.lane." + name().toLowerCase(), defaultThreads));
+      }
+   }
+
+   private final Map<Lane, ThreadPoolExecutor> lanes = new EnumMap<>(Lane.class);
+   // only triggers tasks, these run in their lanes
+   private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "ocpp-timer");
+      thread.setDaemon(true);
+      return thread;
+   });
+   private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+   private volatile boolean shutdown;
+
+   public Scheduler() {
+      for (Lane lane : Lane.values()) {
+         AtomicInteger counter = new AtomicInteger();
+         String prefix = "ocpp-" + lane.name().toLowerCase() + "-";
+         lanes.put(lane, new ThreadPoolExecutor(lane.threads(), lane.threads(), 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+         }));
+      }
+   }
+
+   public Executor executor(Lane lane) {
+      return lanes.get(lane);
+   }
+
+   public Future<?> submit(Lane lane, Runnable task) {
+      return lanes.get(lane).submit(task);
+   }
+
+   /**
+    * Submits a task where only the latest submission for the <code>key</code> matters, e.g. refresh of the table.
+    * If the same version is already waiting in the lane this is a no-op. Submitting a different version
+    * cancels both the waiting and running task for the key (interrupting the latter); the task should check
+    * {@link Thread#isInterrupted()} before publishing its results.
+    *
+    * @param version Identifies what the task works on, e.g. kind and namespace.
+    */
+   public Future<?> submitLatest(Lane lane, String key, Object version, Runnable task) {
+      Slot slot = slots.computeIfAbsent(key, k -> new Slot());
+      synchronized (slot) {
+         if (!Objects.equals(slot.version, version)) {
+            slot.cancel();
+            slot.version = version;
+         } else if (slot.pending != null && !slot.pending.isDone()) {
+            return slot.pending;
+         }
+         SlotTask slotTask = new SlotTask(slot, task);
+         slot.pending = slotTask;
+         lanes.get(lane).execute(slotTask);
+         return slotTask;
+      }
+   }
+
+   public void scheduleWithFixedDelay(Lane lane, Runnable task, long initialDelay, long delay, TimeUnit unit) {
+      timer.scheduleWithFixedDelay(() -> submit(lane, task), initialDelay, delay, unit);
+   }
+
+   /**
+    * Like {@link #scheduleWithFixedDelay(Lane, Runnable, long, long, TimeUnit)} but goes through
+    * {@link #submitLatest(Lane, String, Object, Runnable)} so that slow tasks don't pile up.
+    */
+   public void scheduleLatest(Lane lane, String key, Supplier<Object> version, Runnable task, long initialDelay, long delay, TimeUnit unit) {
+      timer.scheduleWithFixedDelay(() -> submitLatest(lane, key, version.get(), task), initialDelay, delay, unit);
+   }
+
+   /**
+    * Runs a short task, such as handing work over to the GUI thread, on the timer thread after the delay.
+    */
+   public void delay(Runnable trigger, long delay, TimeUnit unit) {
+      timer.schedule(trigger, delay, unit);
+   }
+
+   public boolean isShutdown() {
+      return shutdown;
+   }
+
+   public void shutdown() {
+      shutdown = true;
+      timer.shutdownNow();
+      lanes.values().forEach(ThreadPoolExecutor::shutdownNow);
+   }
+
+   private static class Slot {
+      Object version;
+      SlotTask pending;
+      SlotTask running;
+
+      void cancel() {
+         if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+         }
+         if (running != null) {
+            running.cancel(true);
+            running = null;
+         }
+      }
+   }
+
+   private static class SlotTask extends FutureTask<Void> {
+      private final Slot slot;
+
+      SlotTask(Slot slot, Runnable task) {
+         super(task, null);
+         this.slot = slot;
+      }
+
+      @Override
+      public void run() {
+         synchronized (slot) {
+            if (isCancelled()) {
+               return;
+            }
+            if (slot.pending == this) {
+               slot.pending = null;
+            }
+            slot.running = this;
+         }
+         try {
+            super.run();
+         } finally {
+            synchronized (slot) {
+               if (slot.running == this) {
+                  slot.running = null;
+               }
+            }
+         }
+      }
+   }
+}
@@ -0,0 +1,103 @@
+package io.openshift.ocpp;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.fabric8.kubernetes.client.KubernetesClientException;
+import io.fabric8.kubernetes.client.internal.SerializationUtils;
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Fetches rows already formatted by the API server (<code>meta.k8s.io/v1 Table</code>) instead of full objects.
+ * Server columns are matched to {@link Resources#getColumns()} by name; columns the server does not provide
+ * are left blank unless given a fixed value.
+ */
+public class ServerTable {
+   static final boolean ENABLED = Boolean.getBoolean("ocpp.serverTable");
+   private static final String ACCEPT = "application/json;as=Table;v=v1;g=meta.k8s.io,application/json";
+
+   static List<Row> fetch(Ocpp ocpp, String path, String[] columns) {
+      return fetch(ocpp.oc, path, columns, Collections.emptyMap());
+   }
+
+   /**
+    * @param path API path relative to master URL, e.g. <code>api/v1/namespaces/foo/pods</code>, optionally with query.
+    * @param fixedColumns Values for columns the server does not provide.
+    */
+   static List<Row> fetch(OpenShiftClient oc, String path, String[] columns, Map<String, String> fixedColumns) {
+      String kind = path.contains("?") ? path.substring(0, path.indexOf('?')) : path;
+      kind = kind.substring(kind.lastIndexOf('/') + 1);
+      List<Row> rows = new ArrayList<>();
+      String continueToken = null;
+      do {
+         HttpUrl.Builder url = HttpUrl.get(oc.getMasterUrl() + path).newBuilder()
+               .addQueryParameter("includeObject", "None")
+               .addQueryParameter("limit", String.valueOf(Informers.PAGE_SIZE));
+         if (continueToken != null) {
+            url.addQueryParameter("continue", continueToken);
+         }
+         JsonNode table = get(oc, url.build());
+         if (!"Table".equals(table.path("kind").asText())) {
+            throw new KubernetesClientException("Server did not return Table for " + path + ", got " + table.path("kind").asText());
+         }
+         int[] mapping = mapColumns(table.path("columnDefinitions"), columns);
+         for (JsonNode row : table.path("rows")) {
+            JsonNode cells = row.path("cells");
+            String[] values = new String[columns.length];
+            for (int i = 0; i < columns.length; ++i) {
+               if (mapping[i] >= 0) {
+                  values[i] = cellToString(cells.path(mapping[i]));
+               } else {
+                  values[i] = fixedColumns.getOrDefault(columns[i], "");
+               }
+            }
+            String name = values[0];
+            rows.add(new Row(kind + "/" + name, name, () -> values));
+         }
+         continueToken = table.path("metadata").path("continue").asText(null);
+      } while (continueToken != null && !continueToken.isEmpty());
+      return rows;
+   }
+
+   private static JsonNode get(OpenShiftClient oc, HttpUrl url) {
+      Request request = new Request.Builder().url(url).header("Accept", ACCEPT).get().build();
+      try (Response response = Util.httpClient(oc).newCall(request).execute()) {
+         ResponseBody body = response.body();
+         if (!response.isSuccessful()) {
+            throw new KubernetesClientException("Failure executing GET " + url + ": " + response.code() + " " + response.message(), response.code(), null);
+         }
+         return SerializationUtils.getMapper().readTree(body.byteStream());
+      } catch (IOException e) {
+         throw new KubernetesClientException("Failure executing GET " + url, e);
+      }
+   }
+
+   private static int[] mapColumns(JsonNode columnDefinitions, String[] columns) {
+      Map<String, Integer> serverColumns = new HashMap<>();
+      for (int i = 0; i < columnDefinitions.size(); ++i) {
+         serverColumns.put(columnDefinitions.get(i).path("name").asText().toUpperCase().replace(' ', '-'), i);
+      }
+      int[] mapping = new int[columns.length];
+      for (int i = 0; i < columns.length; ++i) {
+         mapping[i] = serverColumns.getOrDefault(columns[i], -1);
+      }
+      return mapping;
+   }
+
+   private static String cellToString(JsonNode cell) {
+      if (cell.isNull() || cell.isMissingNode()) {
+         return "";
+      }
+      return cell.asText();
+   }
+}
@@ -1,6 +1,5 @@
 package io.openshift.ocpp;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -13,9 +12,11 @@ import io.fabric8.kubernetes.client.dsl.NonNamespaceOperation;
 import io.fabric8.kubernetes.client.dsl.ServiceResource;
 
 public class Services extends AbstractResources {
+   private static final String[] COLUMNS = new String[] { "NAME", "TYPE", "CLUSTER-IP", "EXTERNAL-IP", "PORT(S)", "AGE", "SELECTOR" };
+   // after COLUMNS, which the instance uses
    public static final Services INSTANCE = new Services();
 
-   private static final String[] COLUMNS = new String[] { "NAME", "TYPE", "CLUSTER-IP", "EXTERNAL-IP", "PORT(S)", "AGE", "SELECTOR" };
+   private final RowCache<Service> rowCache = new RowCache<>(COLUMNS, svc -> svc.getMetadata().getCreationTimestamp());
 
    @Override
    public String[] getColumns() {
@@ -23,16 +24,23 @@ public class Services extends AbstractResources {
    }
 
    @Override
-   public List<String[]> fetchRows(Ocpp ocpp) {
-      return ocpp.oc.services().inNamespace(ocpp.ns()).list().getItems().stream().map(svc -> new String[] {
+   public List<Row> fetchRows(Ocpp ocpp, String ns) {
+      if (ServerTable.ENABLED) {
+         return ServerTable.fetch(ocpp, "api/v1/namespaces/" + ns + "/services", COLUMNS);
+      }
+      return rowCache.rows(ns, ocpp.informers.get("services", ns, oc -> ns == null ? oc.services().inAnyNamespace() : oc.services().inNamespace(ns)).items(), this::toRow).sorted(Row.BY_NAME).collect(Collectors.toList());
+   }
+
+   String[] toRow(Service svc) {
+      return new String[] {
             svc.getMetadata().getName(),
             svc.getSpec().getType(),
             svc.getSpec().getClusterIP(),
             Util.listToString(svc.getSpec().getExternalIPs()),
             Util.listToString(svc.getSpec().getPorts().stream().map(this::servicePort).collect(Collectors.toList())),
-            Util.getAge(svc.getMetadata().getCreationTimestamp()),
+            null, // AGE is rendered by Row
             svc.getSpec().getSelector().entrySet().stream().map(e -> e.getKey() + "=" + e.getValue()).collect(Collectors.joining(", "))
-      }).sorted(Comparator.comparing(a -> a[0])).collect(Collectors.toList());
+      };
    }
 
    private String servicePort(ServicePort sp) {
@@ -53,6 +61,11 @@ public class Services extends AbstractResources {
       return sb.append("/").append(sp.getProtocol()).toString();
    }
 
+   @Override
+   String informerKind(List<String> row) {
+      return "services";
+   }
+
    @Override
    public String getResourceType(List<String> row) {
       return "services";
@@ -65,6 +78,6 @@ public class Services extends AbstractResources {
 
    @Override
    public NonNamespaceOperation<Service, ServiceList, DoneableService, ServiceResource<Service, DoneableService>> getResources(Ocpp ocpp, List<String> row) {
-      return ocpp.oc.services().inNamespace(ocpp.ns());
+      return ocpp.oc.services().inNamespace(ocpp.ns(row));
    }
 }
@@ -0,0 +1,198 @@
+package io.openshift.ocpp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Last rows of each view stored under <code>~/.cache/ocpp/&lt;server&gt;/&lt;namespace&gt;/&lt;kind&gt;</code>,
+ * displayed at startup (or after switching the view) until the first list from the server completes.
+ * The file is memory-mapped and the cells are decoded only when the row is displayed. Rows are formatted
+ * when saved unless formatting fetches more data; such rows that have not been displayed are stored only
+ * with their name.
+ * <p>
+ * The directory is set by <code>-Docpp.cache=/path</code>; empty value disables the cache.
+ */
+public class SnapshotCache {
+   static final String DIRECTORY = System.getProperty("ocpp.cache", Paths.get(System.getProperty("user.home"), ".cache", "ocpp").toString());
+   // the file is rewritten at most this often
+   static final long SAVE_INTERVAL = 30_000;
+   private static final int MAGIC = 0x4f435050; // OCPP
+   private static final int VERSION = 1;
+
+   private final Map<Path, Long> lastSaved = new ConcurrentHashMap<>();
+   // snapshots loaded for views that are still loading from the server
+   private final Map<Path, Cached> loaded = new ConcurrentHashMap<>();
+
+   /**
+    * @return Rows from the last run or <code>null</code> if there are none.
+    */
+   public Cached load(Ocpp ocpp, Resources resources, String namespace) {
+      Path path = path(ocpp, resources, namespace);
+      if (path == null) {
+         return null;
+      }
+      return loaded.computeIfAbsent(path, SnapshotCache::read);
+   }
+
+   private static Cached read(Path path) {
+      if (!Files.isRegularFile(path)) {
+         return null;
+      }
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+         // the mapping stays valid after closing the channel
+         MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+         if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+         }
+         long savedAt = buffer.getLong();
+         int ageColumn = buffer.getInt();
+         int count = buffer.getInt();
+         List<Row> rows = new ArrayList<>(count);
+         for (int i = 0; i < count; ++i) {
+            String key = readString(buffer);
+            String name = readString(buffer);
+            long since = buffer.getLong();
+            int cellsLength = buffer.getInt();
+            ByteBuffer cells = buffer.slice();
+            cells.limit(cellsLength);
+            buffer.position(buffer.position() + cellsLength);
+            rows.add(new Row(key, name, () -> readCells(cells.duplicate()), ageColumn, since == Long.MIN_VALUE ? Age.NONE : new Age(since)));
+         }
+         return new Cached(rows, savedAt);
+      } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+         // corrupted or written by another version, will be overwritten
+         return null;
+      }
+   }
+
+   /**
+    * Stores complete rows of the view in background unless this view has been saved recently.
+    */
+   public void saveLater(Ocpp ocpp, Resources resources, String namespace, List<Row> rows) {
+      Path path = path(ocpp, resources, namespace);
+      long now = System.currentTimeMillis();
+      if (path == null) {
+         return;
+      }
+      // we have live data now
+      loaded.remove(path);
+      if (rows.isEmpty() || lastSaved.getOrDefault(path, Long.MIN_VALUE) + SAVE_INTERVAL > now) {
+         return;
+      }
+      lastSaved.put(path, now);
+      boolean cheapCells = resources.cheapCells();
+      ocpp.scheduler.submit(Scheduler.Lane.IO, () -> save(path, rows, cheapCells));
+   }
+
+   private void save(Path path, List<Row> rows, boolean cheapCells) {
+      try {
+         Files.createDirectories(path.getParent());
+         Path tmp = Files.createTempFile(path.getParent(), path.getFileName().toString(), ".tmp");
+         try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(rows.get(0).ageColumn());
+            out.writeInt(rows.size());
+            for (Row row : rows) {
+               writeString(out, row.key);
+               writeString(out, row.name);
+               out.writeLong(row.age().since());
+               // the table formats only the visible rows
+               String[] cells = cheapCells ? row.formattedCells() : row.cellsIfFormatted();
+               if (cells == null) {
+                  // formatting could fetch more data, until the list completes we'll show only the name
+                  cells = new String[] { row.name };
+               }
+               List<byte[]> encoded = new ArrayList<>(cells.length);
+               int length = 4;
+               for (int i = 0; i < cells.length; ++i) {
+                  // age is rendered from the timestamp
+                  byte[] bytes = i == row.ageColumn() || cells[i] == null ? new byte[0] : cells[i].getBytes(StandardCharsets.UTF_8);
+                  encoded.add(bytes);
+                  length += 4 + bytes.length;
+               }
+               out.writeInt(length);
+               out.writeInt(cells.length);
+               for (byte[] bytes : encoded) {
+                  out.writeInt(bytes.length);
+                  out.write(bytes);
+               }
+            }
+         }
+         // readers that have the old file mapped keep seeing the old content
+         Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException | RuntimeException e) {
+         // the cache is only an optimization
+         lastSaved.remove(path);
+      }
+   }
+
+   private static Path path(Ocpp ocpp, Resources resources, String namespace) {
+      if (DIRECTORY.isEmpty()) {
+         return null;
+      }
+      if (namespace != null && namespace.length() > 100) {
+         // too many namespaces selected
+         return null;
+      }
+      URL master = ocpp.oc.getMasterUrl();
+      String server = master == null ? "unknown" : master.getHost() + "_" + master.getPort();
+      return Paths.get(DIRECTORY, safe(server), safe(namespace == null ? "_" : namespace), safe(resources.getResourceType(null)));
+   }
+
+   private static String safe(String name) {
+      return name.replaceAll("[^A-Za-z0-9._-]", "_");
+   }
+
+   private static void writeString(DataOutputStream out, String s) throws IOException {
+      byte[] bytes = s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+   }
+
+   private static String readString(ByteBuffer buffer) {
+      int length = buffer.getInt();
+      if (length < 0 || length > buffer.remaining()) {
+         throw new IllegalArgumentException("Invalid string length " + length);
+      }
+      byte[] bytes = new byte[length];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+   }
+
+   private static String[] readCells(ByteBuffer buffer) {
+      String[] cells = new String[buffer.getInt()];
+      for (int i = 0; i < cells.length; ++i) {
+         cells[i] = readString(buffer);
+      }
+      return cells;
+   }
+
+   public static class Cached {
+      final List<Row> rows;
+      // epoch millis
+      final long savedAt;
+
+      Cached(List<Row> rows, long savedAt) {
+         this.rows = rows;
+         this.savedAt = savedAt;
+      }
+   }
+}
@@ -1,11 +1,12 @@
 package io.openshift.ocpp;
 
-import java.time.Instant;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
+import java.io.InterruptedIOException;
 import java.util.List;
 
 import io.fabric8.kubernetes.api.model.Quantity;
+import io.fabric8.kubernetes.client.HttpClientAware;
+import io.fabric8.openshift.client.OpenShiftClient;
+import okhttp3.OkHttpClient;
 
 public class Util {
    static String formatSeconds(long seconds) {
@@ -28,13 +29,6 @@ public class Util {
       }
    }
 
-   static String getAge(String startTime) {
-      if (startTime == null || startTime.isEmpty()) {
-         return "";
-      }
-      return formatSeconds(Instant.from(DateTimeFormatter.ISO_INSTANT.parse(startTime)).until(Instant.now(), ChronoUnit.SECONDS));
-   }
-
    static String toString(Integer replicas) {
       return replicas != null ? replicas.toString() : "0";
    }
@@ -50,4 +44,44 @@ public class Util {
           return 0;
       }
    }
+
+   static OkHttpClient httpClient(OpenShiftClient oc) {
+      return ((HttpClientAware) oc).getHttpClient();
+   }
+
+   /**
+    * @return True if the failure comes from interrupting the thread, e.g. when a refresh is superseded
+    *         while blocked in an HTTP call.
+    */
+   static boolean isInterruption(Throwable t) {
+      if (Thread.currentThread().isInterrupted()) {
+         return true;
+      }
+      for (; t != null; t = t.getCause()) {
+         if (t instanceof InterruptedIOException || t instanceof InterruptedException) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   public static long bytes(Quantity q) {
+      try {
+         return Quantity.getAmountInBytes(q).longValue();
+      } catch (ArithmeticException | NumberFormatException e) {
+         return 0;
+      }
+   }
+
+   static String formatBytes(long bytes) {
+      if (bytes < 1024) {
+         return bytes + "B";
+      } else if (bytes < 1024 * 1024) {
+         return (bytes / 1024) + "Ki";
+      } else if (bytes < 1024 * 1024 * 1024) {
+         return (bytes / (1024 * 1024)) + "Mi";
+      } else {
+         return String.format("%.1fGi", bytes / (1024.0 * 1024 * 1024));
+      }
+   }
 }
@@ -0,0 +1,113 @@
+package io.openshift.ocpp;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.googlecode.lanterna.gui2.table.TableModel;
+
+/**
+ * Table model backed by a snapshot of rows; cells are formatted only when accessed. Rows inserted or
+ * modified through the {@link TableModel} methods have fixed cells.
+ */
+public class VirtualTableModel extends TableModel<String> {
+   private volatile List<Row> rows = Collections.emptyList();
+
+   public VirtualTableModel(String... columnLabels) {
+      super(columnLabels);
+   }
+
+   public synchronized void setRows(List<Row> rows) {
+      this.rows = rows;
+   }
+
+   public Row getResourceRow(int index) {
+      List<Row> rows = this.rows;
+      return index >= 0 && index < rows.size() ? rows.get(index) : null;
+   }
+
+   public int indexOf(String key) {
+      if (key == null) {
+         return -1;
+      }
+      List<Row> rows = this.rows;
+      for (int i = 0; i < rows.size(); ++i) {
+         if (key.equals(rows.get(i).key)) {
+            return i;
+         }
+      }
+      return -1;
+   }
+
+   @Override
+   public int getRowCount() {
+      return rows.size();
+   }
+
+   @Override
+   public List<List<String>> getRows() {
+      List<Row> rows = this.rows;
+      return new AbstractList<List<String>>() {
+         @Override
+         public List<String> get(int index) {
+            return Arrays.asList(rows.get(index).cells());
+         }
+
+         @Override
+         public int size() {
+            return rows.size();
+         }
+      };
+   }
+
+   @Override
+   public List<String> getRow(int index) {
+      return Arrays.asList(rows.get(index).cells());
+   }
+
+   @Override
+   public String getCell(int columnIndex, int rowIndex) {
+      return rows.get(rowIndex).cell(columnIndex);
+   }
+
+   @Override
+   public synchronized TableModel<String> clear() {
+      rows = Collections.emptyList();
+      return this;
+   }
+
+   // the row list is a snapshot shared with the refresh thread; edits replace it with a modified copy
+
+   @Override
+   public synchronized TableModel<String> insertRow(int index, Collection<String> values) {
+      String[] cells = values.toArray(new String[0]);
+      String name = cells.length > 0 ? cells[0] : "";
+      List<Row> copy = new ArrayList<>(rows);
+      copy.add(index, new Row(name, name, () -> cells));
+      rows = copy;
+      return this;
+   }
+
+   @Override
+   public synchronized TableModel<String> removeRow(int index) {
+      List<Row> copy = new ArrayList<>(rows);
+      copy.remove(index);
+      rows = copy;
+      return this;
+   }
+
+   @Override
+   public synchronized TableModel<String> setCell(int columnIndex, int rowIndex, String value) {
+      Row row = rows.get(rowIndex);
+      String[] cells = Arrays.copyOf(row.cells(), Math.max(row.cells().length, columnIndex + 1));
+      cells[columnIndex] = value;
+      List<Row> copy = new ArrayList<>(rows);
+      // without age column, the cells are shown as set
+      copy.set(rowIndex, new Row(row.key, row.name, row.namespace, row.labels, () -> cells, -1, Age.NONE));
+      rows = copy;
+      return this;
+   }
+}
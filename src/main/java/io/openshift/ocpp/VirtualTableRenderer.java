@@ -0,0 +1,125 @@
+package io.openshift.ocpp;
+
+import java.util.List;
+
+import com.googlecode.lanterna.TerminalPosition;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.TerminalTextUtils;
+import com.googlecode.lanterna.graphics.ThemeDefinition;
+import com.googlecode.lanterna.gui2.Direction;
+import com.googlecode.lanterna.gui2.ScrollBar;
+import com.googlecode.lanterna.gui2.TextGUIGraphics;
+import com.googlecode.lanterna.gui2.table.Table;
+import com.googlecode.lanterna.gui2.table.TableModel;
+import com.googlecode.lanterna.gui2.table.TableRenderer;
+
+/**
+ * Unlike the {@link com.googlecode.lanterna.gui2.table.DefaultTableRenderer} this does not copy the whole
+ * model on each draw, and sizes the columns only by the visible rows (plus overscan).
+ * Column widths never shrink until {@link #resetColumnWidths()} so that the table does not jump around
+ * while scrolling.
+ */
+public class VirtualTableRenderer implements TableRenderer<String> {
+   static final int OVERSCAN = 16;
+
+   private final ScrollBar verticalScrollBar = new ScrollBar(Direction.VERTICAL);
+   private int[] columnWidths = new int[0];
+
+   public synchronized void resetColumnWidths() {
+      columnWidths = new int[0];
+   }
+
+   @Override
+   public synchronized TerminalSize getPreferredSize(Table<String> table) {
+      TableModel<String> model = table.getTableModel();
+      int columns = model.getColumnCount();
+      int rowCount = model.getRowCount();
+      int visibleRows = visibleRows(table, rowCount);
+      updateColumnWidths(table, model, rowCount, visibleRows);
+      int width = columns > 0 ? columns - 1 : 0;
+      for (int columnWidth : columnWidths) {
+         width += columnWidth;
+      }
+      if (visibleRows < rowCount) {
+         ++width;
+      }
+      return new TerminalSize(width, 1 + Math.min(rowCount, visibleRows));
+   }
+
+   private int visibleRows(Table<String> table, int rowCount) {
+      return table.getVisibleRows() > 0 ? table.getVisibleRows() : rowCount;
+   }
+
+   private void updateColumnWidths(Table<String> table, TableModel<String> model, int rowCount, int visibleRows) {
+      List<String> labels = model.getColumnLabels();
+      if (columnWidths.length != labels.size()) {
+         columnWidths = new int[labels.size()];
+      }
+      for (int column = 0; column < labels.size(); ++column) {
+         columnWidths[column] = Math.max(columnWidths[column], TerminalTextUtils.getColumnWidth(labels.get(column)));
+      }
+      int from = Math.max(0, table.getViewTopRow() - OVERSCAN);
+      int to = Math.min(rowCount, table.getViewTopRow() + visibleRows + OVERSCAN);
+      for (int row = from; row < to; ++row) {
+         for (int column = 0; column < columnWidths.length; ++column) {
+            String cell = model.getCell(column, row);
+            if (cell != null) {
+               columnWidths[column] = Math.max(columnWidths[column], TerminalTextUtils.getColumnWidth(cell));
+            }
+         }
+      }
+   }
+
+   @Override
+   public TerminalPosition getCursorLocation(Table<String> component) {
+      return null;
+   }
+
+   @Override
+   public synchronized void drawComponent(TextGUIGraphics graphics, Table<String> table) {
+      TerminalSize area = graphics.getSize();
+      if (area.getRows() == 0 || area.getColumns() == 0) {
+         return;
+      }
+      TableModel<String> model = table.getTableModel();
+      int rowCount = model.getRowCount();
+      int visibleRows = Math.min(visibleRows(table, rowCount), area.getRows() - 1);
+      updateColumnWidths(table, model, rowCount, visibleRows);
+      ThemeDefinition themeDefinition = table.getThemeDefinition();
+
+      if (visibleRows < rowCount) {
+         int scrollBarWidth = verticalScrollBar.getPreferredSize().getColumns();
+         verticalScrollBar.setPosition(new TerminalPosition(area.getColumns() - scrollBarWidth, 1));
+         verticalScrollBar.setSize(new TerminalSize(scrollBarWidth, area.getRows() - 1));
+         verticalScrollBar.setScrollMaximum(rowCount);
+         verticalScrollBar.setViewSize(visibleRows);
+         verticalScrollBar.setScrollPosition(table.getViewTopRow());
+         verticalScrollBar.draw(graphics.newTextGraphics(verticalScrollBar.getPosition(), verticalScrollBar.getSize()));
+         area = area.withRelativeColumns(-scrollBarWidth);
+      }
+
+      int left = 0;
+      for (int column = 0; column < columnWidths.length && left < area.getColumns(); ++column) {
+         int width = Math.min(columnWidths[column], area.getColumns() - left);
+         table.getTableHeaderRenderer().drawHeader(table, model.getColumnLabel(column), column,
+               graphics.newTextGraphics(new TerminalPosition(left, 0), new TerminalSize(width, 1)));
+         left += columnWidths[column] + 1;
+      }
+
+      int topRow = table.getViewTopRow();
+      for (int i = 0; i < visibleRows && topRow + i < rowCount; ++i) {
+         int row = topRow + i;
+         TextGUIGraphics line = graphics.newTextGraphics(new TerminalPosition(0, 1 + i), new TerminalSize(area.getColumns(), 1));
+         if (row == table.getSelectedRow()) {
+            line.applyThemeStyle(table.isFocused() ? themeDefinition.getActive() : themeDefinition.getSelected()).fill(' ');
+         }
+         left = 0;
+         for (int column = 0; column < columnWidths.length && left < area.getColumns(); ++column) {
+            int width = Math.min(columnWidths[column], area.getColumns() - left);
+            table.getTableCellRenderer().drawCell(table, model.getCell(column, row), column, row,
+                  line.newTextGraphics(new TerminalPosition(left, 0), new TerminalSize(width, 1)));
+            left += columnWidths[column] + 1;
+         }
+      }
+   }
+}
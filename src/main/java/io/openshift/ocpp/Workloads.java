@@ -0,0 +1,92 @@
+package io.openshift.ocpp;
+
+import java.util.List;
+import java.util.Map;
+
+import io.fabric8.kubernetes.api.model.apps.DaemonSet;
+import io.fabric8.kubernetes.api.model.apps.StatefulSet;
+import io.fabric8.kubernetes.api.model.batch.CronJob;
+import io.fabric8.kubernetes.api.model.batch.Job;
+import io.fabric8.kubernetes.api.model.batch.JobCondition;
+
+/**
+ * Workloads other than deployments: stateful sets, daemon sets, jobs and cron jobs.
+ */
+public class Workloads extends CompositeResources {
+   private static final String[] COLUMNS = new String[] { "NAME", "TYPE", "READY", "STATUS", "AGE" };
+   // after COLUMNS, which the instance uses
+   public static final Workloads INSTANCE = new Workloads();
+
+   private Workloads() {
+      super("workloads", COLUMNS,
+            new Part<>("statefulset", "apis/apps/v1", "statefulsets", COLUMNS,
+                  oc -> oc.apps().statefulSets(), Workloads::toRow),
+            new Part<>("daemonset", "apis/apps/v1", "daemonsets", COLUMNS,
+                  oc -> oc.apps().daemonSets(), Workloads::toRow),
+            new Part<>("job", "apis/batch/v1", "jobs", COLUMNS,
+                  oc -> oc.batch().jobs(), Workloads::toRow),
+            new Part<>("cronjob", "apis/batch/v1beta1", "cronjobs", COLUMNS,
+                  oc -> oc.batch().cronjobs(), Workloads::toRow));
+   }
+
+   static String[] toRow(StatefulSet ss) {
+      return new String[] {
+            ss.getMetadata().getName(),
+            "statefulset",
+            Util.toString(ss.getStatus().getReadyReplicas()) + "/" + Util.toString(ss.getStatus().getReplicas()),
+            ss.getStatus().getUpdateRevision() != null && !ss.getStatus().getUpdateRevision().equals(ss.getStatus().getCurrentRevision()) ? "Updating" : "",
+            null // AGE is rendered by Row
+      };
+   }
+
+   static String[] toRow(DaemonSet ds) {
+      return new String[] {
+            ds.getMetadata().getName(),
+            "daemonset",
+            Util.toString(ds.getStatus().getNumberReady()) + "/" + Util.toString(ds.getStatus().getDesiredNumberScheduled()),
+            ds.getStatus().getNumberMisscheduled() != null && ds.getStatus().getNumberMisscheduled() > 0 ? ds.getStatus().getNumberMisscheduled() + " misscheduled" : "",
+            null // AGE is rendered by Row
+      };
+   }
+
+   static String[] toRow(Job job) {
+      Integer completions = job.getSpec().getCompletions();
+      return new String[] {
+            job.getMetadata().getName(),
+            "job",
+            Util.toString(job.getStatus().getSucceeded()) + "/" + (completions == null ? "1" : completions.toString()),
+            describeStatus(job),
+            null // AGE is rendered by Row
+      };
+   }
+
+   static String[] toRow(CronJob cj) {
+      boolean suspended = Boolean.TRUE.equals(cj.getSpec().getSuspend());
+      int active = cj.getStatus() == null || cj.getStatus().getActive() == null ? 0 : cj.getStatus().getActive().size();
+      return new String[] {
+            cj.getMetadata().getName(),
+            "cronjob",
+            active + " active",
+            suspended ? "Suspended" : cj.getSpec().getSchedule(),
+            null // AGE is rendered by Row
+      };
+   }
+
+   private static String describeStatus(Job job) {
+      List<JobCondition> conditions = job.getStatus().getConditions();
+      if (conditions != null) {
+         for (JobCondition condition : conditions) {
+            if ("True".equals(condition.getStatus()) && ("Complete".equals(condition.getType()) || "Failed".equals(condition.getType()))) {
+               return condition.getType();
+            }
+         }
+      }
+      Integer active = job.getStatus().getActive();
+      return active != null && active > 0 ? "Running" : "Pending";
+   }
+
+   @Override
+   public Map<String, Operation> getOperations(List<String> row) {
+      return commonOps().build();
+   }
+}